@@ -0,0 +1,99 @@
+package study.datajpa.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 회원 MEMBERS 명 saveAll - 감사자 생성 방식과 감사 로그 리스너 전후 비교
+ * - auditor=uuid : 이전 방식, 엔티티마다 UUID.randomUUID() (공유 SecureRandom)
+ * - auditor=unitOfWork : 트랜잭션마다 한 번 만든 감사자를 재사용 (UnitOfWorkAuditorAware)
+ * - auditLog=true : AuditLogListener 가 커밋 후 AuditLogWriter 큐에 넣는다 (기록은 백그라운드 스레드)
+ * 커밋까지 측정하고, 반복(iteration)이 끝나면 저장한 회원과 감사 로그를 지운다
+ */
+@State(Scope.Benchmark)
+@Threads(4)
+public class AuditBenchmark {
+
+    private static final int MEMBERS = 100;
+
+    @Param({"uuid", "unitOfWork"})
+    public String auditor;
+
+    @Param({"false", "true"})
+    public boolean auditLog;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate transaction;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void start() {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:jmh-audit;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "spring.jpa.properties.hibernate.highlight_sql=false",
+                        "decorator.datasource.p6spy.enable-logging=false",
+                        "logging.level.org.hibernate.SQL=warn",
+                        "app.seed.members=0",
+                        "app.audit.log.enabled=" + auditLog,
+                        "spring.main.allow-bean-definition-overriding=true");
+
+        if ("uuid".equals(auditor)) {
+            // 먼저 등록한 빈이 있으면 JpaConfig 의 auditorProvider @Bean 은 건너뛴다
+            AuditorAware<String> uuidAuditor = () -> Optional.of(UUID.randomUUID().toString());
+            builder.initializers(applicationContext -> ((GenericApplicationContext) applicationContext)
+                    .registerBean("auditorProvider", AuditorAware.class, () -> uuidAuditor));
+        }
+
+        context = builder.run();
+        memberRepository = context.getBean(MemberRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @Benchmark
+    public List<Member> saveAll() {
+        List<Member> members = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            members.add(new Member("audit" + i, i % 100));
+        }
+        return transaction.execute(status -> memberRepository.saveAll(members));
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanUp() {
+        jdbcTemplate.update("delete from member where username like 'audit%'");
+        jdbcTemplate.update("delete from audit_log");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
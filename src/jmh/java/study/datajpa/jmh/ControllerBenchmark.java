@@ -0,0 +1,46 @@
+package study.datajpa.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.controller.MemberController;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.KeysetWindow;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * MemberController 핸들러 메서드 (조회 + DTO 변환) - HTTP/직렬화는 제외
+ */
+@State(Scope.Thread)
+public class ControllerBenchmark {
+
+    private MemberController controller;
+    private long minId;
+
+    @Setup
+    public void setUp(DataJpaState state) {
+        controller = state.bean(MemberController.class);
+        minId = state.minMemberId;
+    }
+
+    @Benchmark
+    public String findMember() {
+        return controller.findMember(minId + ThreadLocalRandom.current().nextInt(DataJpaState.MEMBERS));
+    }
+
+    @Benchmark
+    public Page<MemberDto> findMembers() {
+        return controller.findMembers(PageRequest.of(ThreadLocalRandom.current().nextInt(DataJpaState.MEMBERS / 5), 5,
+                Sort.by(Sort.Direction.DESC, "username")));
+    }
+
+    @Benchmark
+    public KeysetWindow<MemberDto> findMembersWindow() {
+        return controller.findMembersWindow(null, PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "username")));
+    }
+}
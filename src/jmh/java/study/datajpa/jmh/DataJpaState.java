@@ -0,0 +1,66 @@
+package study.datajpa.jmh;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.datagen.DataGenerator;
+import study.datajpa.datagen.DataGeneratorProperties;
+
+/**
+ * 벤치마크마다 공유하는 애플리케이션 컨텍스트 - 메모리 H2, 웹 서버 없이 띄운다
+ * - DataGenerator 로 팀 TEAMS 개, 회원 MEMBERS 명 (팀에 고르게 배정, username 은 member0000000 형식, age 는 0~99 균등)
+ * - SQL 로그/통계/샘플 데이터는 끈다
+ */
+@State(Scope.Benchmark)
+public class DataJpaState {
+
+    public static final int TEAMS = 100;
+    public static final int MEMBERS = 10_000;
+
+    public ConfigurableApplicationContext context;
+    public TransactionTemplate readOnly;
+    public TransactionTemplate rollback;
+    public long minMemberId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "spring.jpa.properties.hibernate.highlight_sql=false",
+                        "decorator.datasource.p6spy.enable-logging=false",
+                        "logging.level.org.hibernate.SQL=warn",
+                        "app.seed.members=0")
+                .run();
+
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        rollback = new TransactionTemplate(transactionManager);
+
+        DataGeneratorProperties spec = new DataGeneratorProperties();
+        spec.setTeams(TEAMS);
+        spec.setMembers(MEMBERS);
+        minMemberId = context.getBean(DataGenerator.class).generate(spec).getFirstMemberId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,146 @@
+package study.datajpa.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberProjection;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.NestedClosedProjections;
+import study.datajpa.repository.UsernameOnly;
+import study.datajpa.repository.UsernameOnlyDto;
+import study.datajpa.repository.support.GeneratedProjectionFactory;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 프로젝션 생성 + 접근 비용과 DB 조회를 포함한 프로젝션 결과 생성
+ * - *Query 벤치마크는 같은 age 의 회원 (약 MEMBERS / 100 건) 을 조회하고 모든 행의 값을 읽는다
+ *   열린 프로젝션은 엔티티 전체 컬럼 + 영속성 컨텍스트 등록 + 행마다 SpEL,
+ *   UsernameOnly 는 같은 연결식을 select 절에서 계산하고, 닫힌 프로젝션은 select 절의 컬럼만 튜플로 받는다
+ */
+@State(Scope.Thread)
+public class ProjectionBenchmark {
+
+    /**
+     * UsernameOnly 와 같은 값을 내는 열린 프로젝션 - 메서드 호출은 컴파일하지 않으므로 엔티티를 읽고 행마다 SpEL 을 평가한다
+     */
+    public interface OpenUsernameOnly {
+        @Value("#{target.getUsername() + ' ' + target.getAge()}")
+        String getUsername();
+    }
+
+    private final ProjectionFactory factory = new SpelAwareProxyProjectionFactory();
+    private final ProjectionFactory generatedFactory = new GeneratedProjectionFactory();
+    private final Member member = new Member("member1", 10, new Team("teamA"));
+    private final Map<String, Object> usernameRow = Map.of("username", "member1");
+    private final Map<String, Object> memberRow = Map.of("id", 1L, "username", "member1", "teamName", "teamA");
+
+    @Benchmark
+    public String openProjection() {
+        return factory.createProjection(OpenUsernameOnly.class, member).getUsername();
+    }
+
+    @Benchmark
+    public String closedProjection() {
+        return factory.createProjection(MemberProjection.class, usernameRow).getUsername();
+    }
+
+    @Benchmark
+    public String dto() {
+        return new UsernameOnlyDto((String) usernameRow.get("username")).getUsername();
+    }
+
+    @Benchmark
+    public String nestedProjection() {
+        return factory.createProjection(NestedClosedProjections.class, member).getTeam().getName();
+    }
+
+    @Benchmark
+    public String tupleProxy() {
+        return factory.createProjection(MemberProjection.class, memberRow).getTeamName();
+    }
+
+    @Benchmark
+    public String tupleGenerated() {
+        return generatedFactory.createProjection(MemberProjection.class, memberRow).getTeamName();
+    }
+
+    /**
+     * DB 조회까지 포함한 프로젝션 결과 생성 (페이지 20건)
+     */
+    @State(Scope.Thread)
+    public static class Query {
+
+        private MemberRepository memberRepository;
+
+        @Setup
+        public void setUp(DataJpaState state) {
+            memberRepository = state.bean(MemberRepository.class);
+        }
+
+        private PageRequest randomPage() {
+            return PageRequest.of(ThreadLocalRandom.current().nextInt(DataJpaState.MEMBERS / 20), 20);
+        }
+
+        private int randomAge() {
+            return ThreadLocalRandom.current().nextInt(100);
+        }
+    }
+
+    @Benchmark
+    public Page<MemberProjection> nativeProjectionPage(Query query) {
+        return query.memberRepository.findByNativeProjection(query.randomPage());
+    }
+
+    @Benchmark
+    public Page<MemberDto> nativeRowMapperPage(Query query) {
+        return query.memberRepository.findMemberDtoNative(query.randomPage());
+    }
+
+    /**
+     * Member 엔티티를 읽고 행마다 SpEL 로 "username age" 를 만든다
+     */
+    @Benchmark
+    public void openProjectionQuery(Query query, Blackhole blackhole) {
+        for (OpenUsernameOnly row : query.memberRepository.findProjectionsByAge(query.randomAge(), OpenUsernameOnly.class)) {
+            blackhole.consume(row.getUsername());
+        }
+    }
+
+    /**
+     * 같은 "username age" 를 select 절에서 계산 - 한 컬럼짜리 튜플
+     */
+    @Benchmark
+    public void computedProjectionQuery(Query query, Blackhole blackhole) {
+        for (UsernameOnly row : query.memberRepository.findProjectionsByAge(query.randomAge(), UsernameOnly.class)) {
+            blackhole.consume(row.getUsername());
+        }
+    }
+
+    @Benchmark
+    public void dtoProjectionQuery(Query query, Blackhole blackhole) {
+        for (UsernameOnlyDto row : query.memberRepository.findProjectionsByAge(query.randomAge(), UsernameOnlyDto.class)) {
+            blackhole.consume(row.getUsername());
+        }
+    }
+
+    @Benchmark
+    public void nestedProjectionQuery(Query query, Blackhole blackhole) {
+        for (NestedClosedProjections row
+                : query.memberRepository.findProjectionsByAge(query.randomAge(), NestedClosedProjections.class)) {
+            blackhole.consume(row.getUsername());
+            blackhole.consume(row.getTeam() == null ? null : row.getTeam().getName());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package study.datajpa.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * MemberRepository(Spring Data) 와 MemberJpaRepository(직접 작성한 JPQL) 의 주요 조회/수정 경로
+ * - findById 는 Member 2차 캐시를 탄다 (애플리케이션 설정 그대로)
+ * - bulk update 는 매번 롤백하므로 데이터는 바뀌지 않는다
+ */
+@State(Scope.Thread)
+public class RepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private MemberRepository memberRepository;
+    private MemberJpaRepository memberJpaRepository;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate rollback;
+    private long minId;
+
+    @Setup
+    public void setUp(DataJpaState state) {
+        memberRepository = state.bean(MemberRepository.class);
+        memberJpaRepository = state.bean(MemberJpaRepository.class);
+        readOnly = state.readOnly;
+        rollback = state.rollback;
+        minId = state.minMemberId;
+    }
+
+    @Benchmark
+    public Member findById() {
+        return memberRepository.findById(randomId()).orElseThrow();
+    }
+
+    @Benchmark
+    public Member findByIdHandWritten() {
+        long id = randomId();
+        return readOnly.execute(status -> memberJpaRepository.find(id));
+    }
+
+    @Benchmark
+    public List<Member> derivedQuery() {
+        return memberRepository.findByUsernameAndAgeGreaterThan(randomUsername(), -1);
+    }
+
+    @Benchmark
+    public List<Member> handWrittenQuery() {
+        String username = randomUsername();
+        return readOnly.execute(status -> memberJpaRepository.findByUsernameAndAgeGreaterThan(username, -1));
+    }
+
+    @Benchmark
+    public Page<Member> pagedRead() {
+        return memberRepository.findAll(PageRequest.of(randomPage(), PAGE_SIZE, Sort.by("username")));
+    }
+
+    @Benchmark
+    public List<Member> pagedReadHandWritten() {
+        int age = ThreadLocalRandom.current().nextInt(100);
+        return readOnly.execute(status -> memberJpaRepository.findByPage(age, 0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Page<MemberDto> pagedDtoRead() {
+        return memberRepository.findMemberDtoPage(PageRequest.of(randomPage(), PAGE_SIZE, Sort.by("username")));
+    }
+
+    @Benchmark
+    public void fetchJoin(Blackhole blackhole) {
+        consumeTeams(memberRepository.findMemberFetchJoin(), blackhole);
+    }
+
+    @Benchmark
+    public void entityGraph(Blackhole blackhole) {
+        consumeTeams(memberRepository.findAll(), blackhole);
+    }
+
+    /**
+     * 지연 로딩 - default_batch_fetch_size 로 team 을 IN 절로 묶어서 초기화
+     */
+    @Benchmark
+    public void lazyLoad(Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> consumeTeams(memberRepository.findAllLazy(), blackhole));
+    }
+
+    @Benchmark
+    public Integer bulkUpdate() {
+        return rollback.execute(status -> {
+            status.setRollbackOnly();
+            return memberRepository.bulkAgePlus(99);
+        });
+    }
+
+    @Benchmark
+    public Integer bulkUpdateHandWritten() {
+        return rollback.execute(status -> {
+            status.setRollbackOnly();
+            return memberJpaRepository.bulkAgePlus(99);
+        });
+    }
+
+    private static void consumeTeams(List<Member> members, Blackhole blackhole) {
+        for (Member member : members) {
+            blackhole.consume(member.getTeam().getName());
+        }
+    }
+
+    private long randomId() {
+        return minId + ThreadLocalRandom.current().nextInt(DataJpaState.MEMBERS);
+    }
+
+    private static String randomUsername() {
+        return String.format("member%07d", ThreadLocalRandom.current().nextInt(DataJpaState.MEMBERS));
+    }
+
+    private static int randomPage() {
+        return ThreadLocalRandom.current().nextInt(DataJpaState.MEMBERS / PAGE_SIZE);
+    }
+}
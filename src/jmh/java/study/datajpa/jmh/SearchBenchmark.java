@@ -0,0 +1,76 @@
+package study.datajpa.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.KeysetCursor;
+import study.datajpa.repository.KeysetWindow;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.MemberSpec;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 검색과 깊은 페이지 조회 (MemberRepositoryTest 의 keysetPagingBenchmark 이전)
+ * - 같은 MemberSpec 을 findAll(spec)(매번 Criteria 생성/렌더링) vs search(spec)(조건 모양별 캐시된 JPQL)
+ * - 조건 모양별 캐시된 JPQL 검색 (팀 + 나이 범위)
+ * - 같은 깊이(DEEP_PAGE)에서 오프셋 페이징 vs 키셋 페이징
+ */
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEP_PAGE = DataJpaState.MEMBERS / PAGE_SIZE - 10;
+
+    private MemberRepository memberRepository;
+    private KeysetCursor deepCursor;
+
+    @Setup
+    public void setUp(DataJpaState state) {
+        memberRepository = state.bean(MemberRepository.class);
+
+        // DEEP_PAGE 바로 앞 행을 커서로 (username desc, id desc)
+        Member last = memberRepository.findAll(PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE,
+                Sort.by(Sort.Direction.DESC, "username", "id"))).getContent().get(PAGE_SIZE - 1);
+        deepCursor = new KeysetCursor(last.getUsername(), last.getId(), false);
+    }
+
+    @Benchmark
+    public List<Member> specification() {
+        return memberRepository.findAll(MemberSpec.username(randomUsername()).and(MemberSpec.teamName(null)));
+    }
+
+    @Benchmark
+    public List<Member> cachedSpecification() {
+        return memberRepository.search(MemberSpec.username(randomUsername()).and(MemberSpec.teamName(null)));
+    }
+
+    @Benchmark
+    public List<Member> searchByTeamAndAge() {
+        int age = ThreadLocalRandom.current().nextInt(100);
+        String teamName = "team" + ThreadLocalRandom.current().nextInt(DataJpaState.TEAMS);
+        return memberRepository.search(new MemberSearchCondition(null, teamName, age, age + 9));
+    }
+
+    @Benchmark
+    public Page<Member> offsetDeepPage() {
+        return memberRepository.findAll(PageRequest.of(DEEP_PAGE, PAGE_SIZE,
+                Sort.by(Sort.Direction.DESC, "username", "id")));
+    }
+
+    @Benchmark
+    public KeysetWindow<Member> keysetDeepPage() {
+        return memberRepository.findMemberWindow(deepCursor, PAGE_SIZE, Sort.Direction.DESC);
+    }
+
+    private static String randomUsername() {
+        return String.format("member%07d", ThreadLocalRandom.current().nextInt(DataJpaState.MEMBERS));
+    }
+}
@@ -0,0 +1,72 @@
+package study.datajpa.audit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.BaseEntity;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 커밋된 변경만 감사 로그 큐에 넣는다 - 실제 기록은 {@link AuditLogWriter}가 비동기로 배치 처리
+ */
+public class AuditLogListener {
+
+    private final ObjectProvider<AuditLogWriter> writer;
+
+    public AuditLogListener(ObjectProvider<AuditLogWriter> writer) {
+        this.writer = writer;
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        record(entity, "INSERT", ((BaseEntity) entity).getCreatedBy());
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        record(entity, "UPDATE", ((BaseEntity) entity).getModifiedBy());
+    }
+
+    private void record(Object entity, String action, String auditor) {
+        AuditLogWriter auditLogWriter = writer.getIfAvailable();
+        if (auditLogWriter == null) {
+            return;
+        }
+
+        AuditRecord record = new AuditRecord(entity.getClass().getSimpleName(),
+                auditLogWriter.identifierOf(entity), action, auditor, LocalDateTime.now());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            auditLogWriter.append(List.of(record));
+            return;
+        }
+        pendingRecords(auditLogWriter).add(record);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AuditRecord> pendingRecords(AuditLogWriter auditLogWriter) {
+        List<AuditRecord> pending = (List<AuditRecord>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        List<AuditRecord> records = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, records);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                auditLogWriter.append(records);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(AuditLogListener.this);
+            }
+        });
+        return records;
+    }
+}
@@ -0,0 +1,113 @@
+package study.datajpa.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 감사 로그를 큐에 모았다가 별도 스레드에서 배치 insert 한다
+ * - 큐가 가득 차면 요청 스레드를 막지 않고 버린 뒤 건수만 남긴다
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.log.enabled", havingValue = "true")
+public class AuditLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL =
+            "insert into audit_log (entity_name, entity_id, action, auditor, recorded_at) values (?, ?, ?, ?, ?)";
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory emf;
+    private final int batchSize;
+    private final BlockingQueue<AuditRecord> queue;
+    private final ScheduledExecutorService executor;
+    private final AtomicLong dropped = new AtomicLong();
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, EntityManagerFactory emf,
+                          @Value("${app.audit.log.batch-size:500}") int batchSize,
+                          @Value("${app.audit.log.queue-capacity:100000}") int queueCapacity,
+                          @Value("${app.audit.log.flush-interval-ms:200}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emf = emf;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-log-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void append(Collection<AuditRecord> records) {
+        for (AuditRecord record : records) {
+            if (!queue.offer(record)) {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    String identifierOf(Object entity) {
+        return String.valueOf(emf.getPersistenceUnitUtil().getIdentifier(entity));
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    void flush() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, toArgs(batch));
+            } catch (RuntimeException e) {
+                log.warn("failed to write {} audit records", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * 진행 중인 flush 가 끝나기를 기다린 뒤 큐에 남은 레코드를 기록한다 (두 스레드가 동시에 drain 하지 않도록)
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("audit log writer did not stop within {}s", SHUTDOWN_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private static List<Object[]> toArgs(List<AuditRecord> records) {
+        List<Object[]> args = new ArrayList<>(records.size());
+        for (AuditRecord record : records) {
+            args.add(new Object[]{record.getEntityName(), record.getEntityId(), record.getAction(),
+                    record.getAuditor(), Timestamp.valueOf(record.getRecordedAt())});
+        }
+        return args;
+    }
+}
@@ -0,0 +1,44 @@
+package study.datajpa.audit;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 트랜잭션(작업 단위)마다 한 번만 감사자 ID를 만들어 같은 트랜잭션의 모든 엔티티에 재사용한다
+ * - UUID.randomUUID()는 SecureRandom을 공유해서 경합이 생기므로 ThreadLocalRandom으로 생성
+ */
+public class UnitOfWorkAuditorAware implements AuditorAware<String> {
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Optional.of(randomId());
+        }
+
+        String auditor = (String) TransactionSynchronizationManager.getResource(this);
+        if (auditor == null) {
+            auditor = randomId();
+            TransactionSynchronizationManager.bindResource(this, auditor);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(UnitOfWorkAuditorAware.this);
+                }
+            });
+        }
+        return Optional.of(auditor);
+    }
+
+    static String randomId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // version 4, IETF variant
+        long msb = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+        long lsb = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+}
@@ -0,0 +1,42 @@
+package study.datajpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import study.datajpa.querycount.QueryCountTaskDecorator;
+
+/**
+ * 리포지토리 @Async("queryExecutor") 조회 메서드를 실행하는 스레드 풀
+ * - 스레드마다 커넥션을 하나씩 쓰므로 pool-size 는 Hikari 풀보다 작게, 큐가 차면 TaskRejectedException
+ * - Executor 빈을 선언하면 Boot 의 applicationTaskExecutor(MVC 비동기 응답, 기본 @Async)가 빠지므로 같은 설정으로 다시 선언한다
+ * - 두 풀 모두 executor.* 메트릭으로 노출된다
+ * - queryExecutor 작업은 제출한 스레드의 QueryCounter 범위에서 세어진다 (QueryCountTaskDecorator)
+ */
+@Configuration
+@EnableAsync
+public class AsyncQueryConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor queryExecutor(@Value("${app.async-query.pool-size:4}") int poolSize,
+                                                @Value("${app.async-query.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("query-");
+        executor.setTaskDecorator(new QueryCountTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    @Lazy
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
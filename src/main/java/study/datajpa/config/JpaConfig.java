@@ -1,18 +1,54 @@
 package study.datajpa.config;
 
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.config.BootstrapMode;
+import study.datajpa.audit.UnitOfWorkAuditorAware;
+import study.datajpa.repository.support.ExtendedJpaRepository;
+import study.datajpa.repository.support.ExtendedJpaRepositoryFactoryBean;
 
-import java.util.Optional;
-import java.util.UUID;
-
+/**
+ * @EnableJpaRepositories 를 직접 선언하므로 spring.data.jpa.repositories.bootstrap-mode 는 적용되지 않는다
+ * - 부트스트랩 모드는 프로필로 나눈다 (기본: DEFAULT, fast-start: DEFERRED)
+ */
 @Configuration
 public class JpaConfig {
 
     @Bean
     public AuditorAware<String> auditorProvider() {
-        return () -> Optional.of(UUID.randomUUID().toString());
+        return new UnitOfWorkAuditorAware();
+    }
+
+    @Configuration
+    @Profile("!fast-start")
+    @EnableJpaRepositories(basePackages = "study.datajpa.repository",
+            repositoryBaseClass = ExtendedJpaRepository.class,
+            repositoryFactoryBeanClass = ExtendedJpaRepositoryFactoryBean.class)
+    static class DefaultRepositoryConfig {
     }
 
+    /**
+     * fast-start 프로필 - EntityManagerFactory(Hibernate 메타모델, DDL)를 별도 스레드에서 만들고
+     * 그동안 나머지 빈(Tomcat, MVC 등)을 초기화한다
+     * - 리포지토리는 프록시만 먼저 등록되고 ContextRefreshedEvent 에서 초기화된다 (오류는 여전히 기동 중에 드러난다)
+     * - LAZY 는 첫 요청이 초기화 비용을 떠안으므로 사용하지 않는다
+     */
+    @Configuration
+    @Profile("fast-start")
+    @EnableJpaRepositories(basePackages = "study.datajpa.repository",
+            repositoryBaseClass = ExtendedJpaRepository.class,
+            repositoryFactoryBeanClass = ExtendedJpaRepositoryFactoryBean.class,
+            bootstrapMode = BootstrapMode.DEFERRED)
+    static class DeferredRepositoryConfig {
+
+        @Bean
+        public EntityManagerFactoryBuilderCustomizer backgroundEntityManagerFactoryBootstrap() {
+            return builder -> builder.setBootstrapExecutor(new SimpleAsyncTaskExecutor("jpa-bootstrap-"));
+        }
+    }
 }
@@ -0,0 +1,68 @@
+package study.datajpa.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * 읽기 전용 트랜잭션은 replica, 나머지는 primary로 보낸다
+ * - 트랜잭션의 readOnly 여부는 커넥션을 실제로 얻을 때 알 수 있으므로 LazyConnectionDataSourceProxy로 감싸서 쓴다
+ * - 쓰기 트랜잭션을 커밋한 스레드는 maxLag 동안 primary에서 읽는다 (자기가 쓴 값을 바로 읽을 수 있도록)
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final long maxLagNanos;
+    private final ThreadLocal<Long> lastWriteNanos = new ThreadLocal<>();
+
+    public ReadWriteRoutingDataSource(Duration maxLag) {
+        this.maxLagNanos = maxLag.toNanos();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            markWriteAfterCommit();
+            return PRIMARY;
+        }
+        return recentlyWritten() ? PRIMARY : REPLICA;
+    }
+
+    /**
+     * 현재 스레드의 최근 쓰기 기록을 지운다
+     */
+    public void forgetRecentWrite() {
+        lastWriteNanos.remove();
+    }
+
+    private boolean recentlyWritten() {
+        Long written = lastWriteNanos.get();
+        if (written == null) {
+            return false;
+        }
+        if (System.nanoTime() - written < maxLagNanos) {
+            return true;
+        }
+        lastWriteNanos.remove();
+        return false;
+    }
+
+    private void markWriteAfterCommit() {
+        if (maxLagNanos <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteNanos.set(System.nanoTime());
+            }
+        });
+    }
+}
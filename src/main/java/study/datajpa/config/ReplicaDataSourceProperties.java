@@ -0,0 +1,27 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 읽기 전용 복제본 설정 - url 이 있을 때만 라우팅 DataSource를 구성한다
+ * 드라이버는 spring.datasource 설정을 따른다
+ */
+@Getter
+@Setter
+@ConfigurationProperties("app.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private String url;
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+
+    /**
+     * 복제 지연 허용치 - 쓰기 트랜잭션을 커밋한 스레드는 이 시간 동안 읽기도 primary에서 한다
+     */
+    private Duration maxLag = Duration.ofSeconds(2);
+}
@@ -0,0 +1,66 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * app.datasource.replica.url 을 설정하면 @Transactional(readOnly = true) 를 replica로 보내는 DataSource를 구성한다
+ * 설정하지 않으면 Boot 기본 DataSource 하나만 쓴다
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, ReplicaDataSourceProperties replica) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername());
+        dataSource.setPassword(replica.getPassword());
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                        @Qualifier("replicaDataSource") DataSource replica,
+                                                        ReplicaDataSourceProperties properties) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(properties.getMaxLag());
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.PRIMARY, primary,
+                ReadWriteRoutingDataSource.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,47 @@
+package study.datajpa.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    /**
+     * 기본 CacheManager는 같은 JVM의 다른 컨텍스트와 공유되므로 닫지 않고, 이미 있는 리전은 그대로 쓴다
+     */
+    @Bean(destroyMethod = "")
+    public CacheManager hibernateCacheManager(SecondLevelCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+
+        properties.getRegions().forEach((name, region) -> {
+            if (cacheManager.getCache(name) != null) {
+                return;
+            }
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+            if (region.getTtl() != null) {
+                configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+            }
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(name, configuration);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+}
@@ -0,0 +1,32 @@
+package study.datajpa.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 2차 캐시 리전별 크기/만료 설정 - 설정하지 않은 리전은 Hibernate가 기본값으로 생성
+ */
+@Getter
+@Setter
+@ConfigurationProperties("app.second-level-cache")
+public class SecondLevelCacheProperties {
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Region {
+
+        private long maxSize = 10_000;
+
+        /**
+         * null 이면 만료하지 않는다
+         */
+        private Duration ttl;
+    }
+}
@@ -0,0 +1,43 @@
+package study.datajpa.config;
+
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * virtual-threads 프로필 - Tomcat 요청 처리와 MVC 비동기 응답(StreamingResponseBody)을 가상 스레드에서 실행한다
+ * - Java 21 이상 런타임 필요, 코드는 17로 컴파일되므로 팩토리 메서드를 리플렉션으로 찾는다
+ * - DB 동시 접속 수는 Hikari 풀 크기로 따로 제한된다 (application-virtual-threads.yaml)
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+    private final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(executor));
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("virtual-threads profile requires Java 21+, running on "
+                    + Runtime.version(), e);
+        }
+    }
+}
@@ -1,37 +1,73 @@
 package study.datajpa.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSuggestionDto;
+import study.datajpa.dto.MembersTeamsDto;
+import study.datajpa.dto.TeamDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.KeysetCursor;
+import study.datajpa.repository.KeysetWindow;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.search.UsernamePrefixIndex;
 
-import javax.annotation.PostConstruct;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final int MAX_SUGGESTIONS = 100;
+
     private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+    private final TeamRepository teamRepository;
+    private final ObjectProvider<UsernamePrefixIndex> usernameIndex;
 
-    @PostConstruct
-    public void init() {
-        for(int i=0; i<10; i++) {
-            Member member = new Member("member" + i, 10+i);
-            memberRepository.save(member);
-        }
-    }
+    @Value("${app.async-query.timeout:5s}")
+    private Duration asyncQueryTimeout;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
-        Member member = memberRepository.findById(id).get();
+        Member member = memberRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
         return member.getUsername();
     }
 
@@ -44,17 +80,145 @@ public class MemberController {
     public Page<MemberDto> findMembers(@PageableDefault(size = 5, page = 1,
             sort = "username", direction = Sort.Direction.DESC) Pageable pageable) {
 
-        Page<Member> members = memberRepository.findAll(pageable);
-        return members.map(member ->
-                new MemberDto(member.getId(), member.getUsername(), member.getUsername()));
+        return findMemberDtoPage(pageable);
+    }
+
+    @GetMapping("/members/window")
+    public KeysetWindow<MemberDto> findMembersWindow(@RequestParam(required = false) String cursor,
+            @PageableDefault(size = 5, sort = "username", direction = Sort.Direction.DESC) Pageable pageable) {
+
+        Sort.Order order = pageable.getSort().getOrderFor("username");
+        Sort.Direction direction = order == null ? Sort.Direction.DESC : order.getDirection();
+
+        KeysetWindow<Member> members = memberRepository.findMemberWindow(
+                decodeCursor(cursor), pageable.getPageSize(), direction);
+        return members.map(member -> new MemberDto(member.getId(), member.getUsername(),
+                member.getTeam() == null ? null : member.getTeam().getName()));
+    }
+
+    /**
+     * username 접두어 자동완성 - 메모리 인덱스가 켜져 있고 준비됐으면 사용하고, 아니면 DB 조회
+     */
+    @GetMapping("/members/search")
+    public List<MemberSuggestionDto> searchMembers(@RequestParam String q,
+                                                   @RequestParam(defaultValue = "10") int limit) {
+        if (!StringUtils.hasText(q)) {
+            return List.of();
+        }
+
+        int size = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+        UsernamePrefixIndex index = usernameIndex.getIfAvailable();
+        if (index != null && index.isReady()) {
+            return index.search(q, size);
+        }
+        return memberRepository.findByUsernameStartingWithOrderByUsernameAsc(q, PageRequest.of(0, size));
     }
 
+    @GetMapping("/members/export")
+    public ResponseEntity<StreamingResponseBody> exportMembers(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        MediaType contentType = MediaType.parseMediaType(csv ? "text/csv" : "application/x-ndjson");
+
+        StreamingResponseBody body = out -> writeMembers(out, csv);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .body(body);
+    }
+
+    /**
+     * 회원 페이지와 팀 페이지를 queryExecutor 에서 동시에 조회 (각각 별도 커넥션)
+     * - 풀/큐가 가득 차거나 asyncQueryTimeout 안에 끝나지 않으면 503
+     */
     @GetMapping("/members-teams")
-    public Page<MemberDto> findMembers(@Qualifier("member") Pageable memberPageable
+    public MembersTeamsDto findMembers(@Qualifier("member") Pageable memberPageable
             , @Qualifier("team") Pageable teamPageable) {
 
-        Page<Member> members = memberRepository.findAll(memberPageable);
-        return members.map(member ->
-                new MemberDto(member.getId(), member.getUsername(), member.getUsername()));
+        CompletableFuture<Page<MemberDto>> members;
+        CompletableFuture<Page<TeamDto>> teams;
+        try {
+            members = memberRepository.findMemberDtoPageAsync(memberPageable);
+            teams = teamRepository.findTeamDtoPageAsync(teamPageable);
+        } catch (TaskRejectedException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Query executor is saturated", e);
+        }
+
+        try {
+            CompletableFuture.allOf(members, teams).get(asyncQueryTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return new MembersTeamsDto(members.join(), teams.join());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted", e);
+        } catch (TimeoutException e) {
+            members.cancel(true);
+            teams.cancel(true);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Query timed out", e);
+        } catch (ExecutionException e) {
+            // 지원하지 않는 정렬 속성 - 리포지토리 프록시에서 변환된 IllegalArgumentException
+            if (e.getCause() instanceof InvalidDataAccessApiUsageException) {
+                InvalidDataAccessApiUsageException cause = (InvalidDataAccessApiUsageException) e.getCause();
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, cause.getMostSpecificCause().getMessage(), cause);
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void writeMembers(OutputStream out, boolean csv) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writerFor(MemberDto.class);
+        if (csv) {
+            writer.write("id,username,teamName\n");
+        }
+
+        memberRepository.scrollMembers(EXPORT_FETCH_SIZE, member -> {
+            MemberDto dto = new MemberDto(member.getId(), member.getUsername(),
+                    member.getTeam() == null ? null : member.getTeam().getName());
+            try {
+                writer.write(csv ? toCsvLine(dto) : jsonWriter.writeValueAsString(dto));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private static String toCsvLine(MemberDto dto) {
+        return dto.getId() + "," + csvValue(dto.getUsername()) + "," + csvValue(dto.getTeamName());
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * 지원하지 않는 정렬 속성의 IllegalArgumentException 은 리포지토리 프록시에서
+     * InvalidDataAccessApiUsageException 으로 변환되어 올라온다 - 400 으로 응답
+     */
+    private Page<MemberDto> findMemberDtoPage(Pageable pageable) {
+        try {
+            return memberRepository.findMemberDtoPage(pageable);
+        } catch (InvalidDataAccessApiUsageException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMostSpecificCause().getMessage(), e);
+        }
+    }
+
+    private KeysetCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
 }
@@ -0,0 +1,23 @@
+package study.datajpa.datagen;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 생성된 id 는 각각 [firstTeamId, firstTeamId + teams), [firstMemberId, firstMemberId + members) 로 연속
+ */
+@Getter
+@RequiredArgsConstructor
+public class DataGenerationResult {
+
+    private final long firstTeamId;
+    private final int teams;
+    private final long firstMemberId;
+    private final int members;
+    private final long elapsedNanos;
+
+    public double getMembersPerSecond() {
+        return members / (elapsedNanos / 1e9);
+    }
+
+}
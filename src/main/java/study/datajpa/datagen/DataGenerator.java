@@ -0,0 +1,218 @@
+package study.datajpa.datagen;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.support.PageCounter;
+import study.datajpa.search.UsernamePrefixIndex;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 팀/회원 대량 생성 - 엔티티를 거치지 않고 여러 커넥션에서 JDBC 배치 insert
+ * - id 는 시퀀스에서 한 번에 예약하고, 끝나면 시퀀스를 생성한 범위 뒤로 옮긴다 (pooled-lo 할당과 겹치지 않게)
+ * - 감사 컬럼(created/modified)과 version 도 채운다, 엔티티 리스너(감사 로그, username 인덱스)는 거치지 않는다
+ * - 끝나면 2차 캐시와 count 캐시를 비우고 username 인덱스를 다시 읽는다
+ * 다른 요청이 쓰는 중에 실행하면 시퀀스 예약이 겹칠 수 있으므로 한가할 때 실행할 것
+ */
+@Component
+public class DataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(DataGenerator.class);
+
+    private static final String TEAM_INSERT = "insert into team (id, name, version) values (?, ?, 0)";
+    private static final String MEMBER_INSERT = "insert into member (member_id, username, age, team_id, version,"
+            + " created_by, modified_by, created_date, last_modified_date) values (?, ?, ?, ?, 0, ?, ?, ?, ?)";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory emf;
+    private final PageCounter pageCounter;
+    private final ObjectProvider<UsernamePrefixIndex> usernameIndex;
+
+    public DataGenerator(DataSource dataSource, JdbcTemplate jdbcTemplate, EntityManagerFactory emf,
+                         PageCounter pageCounter, ObjectProvider<UsernamePrefixIndex> usernameIndex) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.emf = emf;
+        this.pageCounter = pageCounter;
+        this.usernameIndex = usernameIndex;
+    }
+
+    public DataGenerationResult generate(DataGeneratorProperties spec) {
+        if (spec.getMembers() < 0 || spec.getTeams() < 0 || spec.getThreads() < 1 || spec.getBatchSize() < 1
+                || spec.getMinAge() > spec.getMaxAge()) {
+            throw new IllegalArgumentException("Invalid data generator settings");
+        }
+
+        long start = System.nanoTime();
+        Dialect dialect = emf.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        long firstTeamId = reserveIds(dialect, "team", "id", "team_seq", spec.getTeams());
+        long firstMemberId = reserveIds(dialect, "member", "member_id", "member_seq", spec.getMembers());
+
+        insertTeams(spec, firstTeamId);
+        insertMembers(spec, firstTeamId, firstMemberId);
+
+        emf.getCache().evictAll();
+        pageCounter.evict(Member.class);
+        pageCounter.evict(Team.class);
+        usernameIndex.ifAvailable(UsernamePrefixIndex::reload);
+
+        DataGenerationResult result = new DataGenerationResult(firstTeamId, spec.getTeams(),
+                firstMemberId, spec.getMembers(), System.nanoTime() - start);
+        log.info("Generated {} teams and {} members in {} ms ({} members/s)", result.getTeams(), result.getMembers(),
+                result.getElapsedNanos() / 1_000_000, (long) result.getMembersPerSecond());
+        return result;
+    }
+
+    /**
+     * 시퀀스 다음 값과 현재 최대 id 중 큰 값부터 count 개를 쓰고, 시퀀스는 그 뒤에서 다시 시작한다
+     */
+    private long reserveIds(Dialect dialect, String table, String idColumn, String sequence, int count) {
+        Long next = jdbcTemplate.queryForObject(dialect.getSequenceNextValString(sequence), Long.class);
+        Long maxId = jdbcTemplate.queryForObject("select max(" + idColumn + ") from " + table, Long.class);
+        long first = Math.max(next == null ? 1 : next, maxId == null ? 1 : maxId + 1);
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (first + count));
+        return first;
+    }
+
+    private void insertTeams(DataGeneratorProperties spec, long firstTeamId) {
+        inBatches(TEAM_INSERT, spec.getBatchSize(), 0, spec.getTeams(), (ps, i) -> {
+            ps.setLong(1, firstTeamId + i);
+            ps.setString(2, "team" + i);
+        });
+    }
+
+    private void insertMembers(DataGeneratorProperties spec, long firstTeamId, long firstMemberId) {
+        double[] teamWeights = cumulativeTeamWeights(spec.getTeams(), spec.getTeamSkew());
+        long now = System.currentTimeMillis();
+        long createdWithin = Math.max(1, spec.getCreatedWithin().toMillis());
+
+        int threads = Math.min(spec.getThreads(), Math.max(1, spec.getMembers() / spec.getBatchSize()));
+        AtomicInteger sequence = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable ->
+                new Thread(runnable, "datagen-" + sequence.incrementAndGet()));
+        try {
+            List<Future<?>> partitions = new ArrayList<>(threads);
+            for (int p = 0; p < threads; p++) {
+                int from = (int) ((long) spec.getMembers() * p / threads);
+                int to = (int) ((long) spec.getMembers() * (p + 1) / threads);
+                Random random = new Random(spec.getSeed() + p);
+
+                partitions.add(executor.submit(() -> inBatches(MEMBER_INSERT, spec.getBatchSize(), from, to, (ps, i) -> {
+                    long created = now - (long) (random.nextDouble() * createdWithin);
+                    long modified = created + (long) (random.nextDouble() * (now - created));
+                    ps.setLong(1, firstMemberId + i);
+                    ps.setString(2, String.format("%s%07d", spec.getUsernamePrefix(), i));
+                    ps.setInt(3, age(spec, random));
+                    if (teamWeights.length == 0 || random.nextDouble() < spec.getNoTeamRatio()) {
+                        ps.setNull(4, Types.BIGINT);
+                    } else {
+                        ps.setLong(4, firstTeamId + team(teamWeights, random));
+                    }
+                    ps.setString(5, spec.getCreatedBy());
+                    ps.setString(6, spec.getCreatedBy());
+                    ps.setTimestamp(7, new Timestamp(created));
+                    ps.setTimestamp(8, new Timestamp(modified));
+                })));
+            }
+            for (Future<?> partition : partitions) {
+                partition.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating members", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * [from, to) 를 한 커넥션에서 batchSize 건마다 executeBatch + commit
+     */
+    private void inBatches(String sql, int batchSize, int from, int to, RowBinder binder) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                for (int i = from; i < to; i++) {
+                    binder.bind(ps, i);
+                    ps.addBatch();
+                    if ((i - from + 1) % batchSize == 0) {
+                        ps.executeBatch();
+                        connection.commit();
+                    }
+                }
+                ps.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            DataAccessException translated = jdbcTemplate.getExceptionTranslator().translate("generate", sql, e);
+            throw translated != null ? translated : new IllegalStateException(e);
+        }
+    }
+
+    private static int age(DataGeneratorProperties spec, Random random) {
+        if (spec.getAgeDistribution() == DataGeneratorProperties.AgeDistribution.NORMAL) {
+            long age = Math.round(spec.getMeanAge() + random.nextGaussian() * spec.getAgeStdDev());
+            return (int) Math.max(spec.getMinAge(), Math.min(spec.getMaxAge(), age));
+        }
+        return spec.getMinAge() + random.nextInt(spec.getMaxAge() - spec.getMinAge() + 1);
+    }
+
+    /**
+     * 순위 k(0부터) 팀의 가중치 1/(k+1)^skew 를 누적해서 [0, 1] 로 정규화
+     */
+    private static double[] cumulativeTeamWeights(int teams, double skew) {
+        double[] cumulative = new double[teams];
+        double sum = 0;
+        for (int k = 0; k < teams; k++) {
+            sum += 1 / Math.pow(k + 1, skew);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < teams; k++) {
+            cumulative[k] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int team(double[] cumulativeWeights, Random random) {
+        int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+        int team = index >= 0 ? index : -index - 1;
+        return Math.min(team, cumulativeWeights.length - 1);
+    }
+
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement ps, int index) throws SQLException;
+    }
+}
@@ -0,0 +1,60 @@
+package study.datajpa.datagen;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 대량 데이터 생성 설정 - datagen 프로필은 app.datagen 으로 바인딩하고, 테스트/벤치마크는 직접 만들어서 쓴다
+ */
+@Getter
+@Setter
+@ConfigurationProperties("app.datagen")
+public class DataGeneratorProperties {
+
+    public enum AgeDistribution {
+        UNIFORM, NORMAL
+    }
+
+    private int members = 1_000_000;
+    private int teams = 10_000;
+
+    /**
+     * 동시에 쓰는 커넥션(스레드) 수 - 커넥션 풀 크기보다 작게
+     */
+    private int threads = 4;
+    private int batchSize = 1000;
+
+    /**
+     * username = prefix + 0 채운 7자리 순번 (member0000000)
+     */
+    private String usernamePrefix = "member";
+
+    /**
+     * UNIFORM 은 [minAge, maxAge] 균등, NORMAL 은 평균 meanAge, 표준편차 ageStdDev 를 [minAge, maxAge] 로 자른다
+     */
+    private AgeDistribution ageDistribution = AgeDistribution.UNIFORM;
+    private int minAge = 0;
+    private int maxAge = 99;
+    private double meanAge = 35;
+    private double ageStdDev = 12;
+
+    /**
+     * 팀 크기 쏠림 - 순위 k 팀에 1/k^teamSkew 비율로 배정 (0 이면 균등, 1 이면 대략 80/20), 앞 id 팀이 크다
+     */
+    private double teamSkew = 0;
+
+    /**
+     * 팀이 없는 회원 비율 (0 ~ 1)
+     */
+    private double noTeamRatio = 0;
+
+    /**
+     * created_date 는 지금부터 이 기간 이전 사이에서 랜덤
+     */
+    private Duration createdWithin = Duration.ofDays(365);
+    private String createdBy = "datagen";
+    private long seed = 42;
+}
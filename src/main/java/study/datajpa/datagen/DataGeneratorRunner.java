@@ -0,0 +1,26 @@
+package study.datajpa.datagen;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * datagen 프로필 - 기동 중(요청을 받기 전)에 app.datagen 설정대로 데이터를 만든다
+ * ./gradlew bootRun --args='--spring.profiles.active=datagen --app.datagen.members=5000000'
+ */
+@Component
+@Profile("datagen")
+@RequiredArgsConstructor
+@EnableConfigurationProperties(DataGeneratorProperties.class)
+public class DataGeneratorRunner implements CommandLineRunner {
+
+    private final DataGenerator dataGenerator;
+    private final DataGeneratorProperties properties;
+
+    @Override
+    public void run(String... args) {
+        dataGenerator.generate(properties);
+    }
+}
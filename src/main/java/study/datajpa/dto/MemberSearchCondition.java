@@ -0,0 +1,20 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 회원 검색 조건 - null 이거나 빈 문자열인 조건은 쓰지 않는다
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberSearchCondition {
+
+    private String username;
+    private String teamName;
+    private Integer ageGoe;
+    private Integer ageLoe;
+
+}
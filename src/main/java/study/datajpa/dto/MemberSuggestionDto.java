@@ -0,0 +1,13 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class MemberSuggestionDto {
+
+    private Long id;
+    private String username;
+
+}
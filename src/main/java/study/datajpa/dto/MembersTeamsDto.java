@@ -0,0 +1,17 @@
+package study.datajpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.Page;
+
+/**
+ * /members-teams 응답 - 회원 페이지와 팀 페이지를 함께
+ */
+@Data
+@AllArgsConstructor
+public class MembersTeamsDto {
+
+    private Page<MemberDto> members;
+    private Page<TeamDto> teams;
+
+}
@@ -0,0 +1,31 @@
+package study.datajpa.entity;
+
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.MappedSuperclass;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.Transient;
+
+/**
+ * 식별자를 직접 할당하는 엔티티(String, UUID 키 등)의 공통 기반
+ * - 영속화/조회 전까지는 항상 새 엔티티로 판단하므로 save() 호출 시 merge(select) 대신 persist 한다
+ */
+@MappedSuperclass
+public abstract class AssignedIdEntity<ID> implements Persistable<ID> {
+
+    @Transient
+    private boolean isNew = true;
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    protected void markNotNew() {
+        this.isNew = false;
+    }
+
+}
@@ -0,0 +1,32 @@
+package study.datajpa.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import java.time.LocalDateTime;
+
+import static javax.persistence.GenerationType.IDENTITY;
+import static lombok.AccessLevel.PROTECTED;
+
+/**
+ * AuditLogWriter가 JDBC 배치로 기록하는 감사 로그 - 조회 용도로만 매핑
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = PROTECTED)
+public class AuditLog {
+
+    @Id
+    @GeneratedValue(strategy = IDENTITY)
+    private Long id;
+
+    private String entityName;
+    private String entityId;
+    private String action;
+    private String auditor;
+    private LocalDateTime recordedAt;
+
+}
@@ -3,7 +3,6 @@ package study.datajpa.entity;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.Column;
@@ -19,7 +18,7 @@ import static lombok.AccessLevel.PROTECTED;
 @Entity
 @Getter
 @NoArgsConstructor(access = PROTECTED)
-public class Item implements Persistable<String> {
+public class Item extends AssignedIdEntity<String> {
 
     @Id
     private String id;
@@ -32,9 +31,4 @@ public class Item implements Persistable<String> {
         this.id = id;
     }
 
-    @Override
-    public boolean isNew() {
-        return createdDate == null;
-    }
-
 }
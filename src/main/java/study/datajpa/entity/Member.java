@@ -1,13 +1,19 @@
 package study.datajpa.entity;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import study.datajpa.repository.support.PageCountEvictionListener;
+import study.datajpa.search.UsernameIndexListener;
 
 import javax.persistence.*;
 
 import static javax.persistence.FetchType.LAZY;
+import static javax.persistence.GenerationType.SEQUENCE;
 import static lombok.AccessLevel.PROTECTED;
 
 @Entity
@@ -17,19 +23,38 @@ import static lombok.AccessLevel.PROTECTED;
 @ToString(exclude = {"team"})
 @NamedQuery(
         name = "Member.findByUsername",
-        query = "select m from Member m where m.username = :username"
+        query = "select m from Member m where m.username = :username",
+        hints = {
+                @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                @QueryHint(name = "org.hibernate.cacheRegion", value = "member.findByUsername")
+        }
 )
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "member")
+@EntityListeners({PageCountEvictionListener.class, UsernameIndexListener.class})
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username, member_id"),
+        @Index(name = "idx_member_age", columnList = "age"),
+        @Index(name = "idx_member_team", columnList = "team_id")})
 public class Member extends BaseEntity {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
 
     private String username;
     private Integer age;
 
+    /**
+     * 낙관적 락 - bulk update 는 직접 증가시켜야 한다
+     */
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
     @ManyToOne(fetch = LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
@@ -3,28 +3,41 @@ package study.datajpa.entity;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
 import javax.persistence.OneToMany;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Version;
 import java.util.ArrayList;
 import java.util.List;
 
+import static javax.persistence.GenerationType.SEQUENCE;
 import static lombok.AccessLevel.PROTECTED;
 
 @Entity
 @Getter
 @NoArgsConstructor(access = PROTECTED)
 @ToString(exclude = {"members"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")
 public class Team {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = SEQUENCE, generator = "team_seq_generator")
+    @SequenceGenerator(name = "team_seq_generator", sequenceName = "team_seq", allocationSize = 50)
     private Long id;
 
     private String name;
 
+    @Version
+    private Long version;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team.members")
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
@@ -0,0 +1,10 @@
+package study.datajpa.querycount;
+
+import java.util.Map;
+
+public class QueryBudgetExceededException extends IllegalStateException {
+
+    public QueryBudgetExceededException(String name, int budget, int count, Map<String, Integer> statements) {
+        super(String.format("%s executed %d queries (budget %d): %s", name, count, budget, statements));
+    }
+}
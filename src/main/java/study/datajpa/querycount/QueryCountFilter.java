@@ -0,0 +1,60 @@
+package study.datajpa.querycount;
+
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * HTTP 요청마다 실행된 쿼리 수를 센다
+ * - app.query-count.request-budget 을 넘으면 경고, fail-on-budget-exceeded 이면 예외로 요청을 실패시킨다 (테스트용)
+ * - 비동기로 쓰는 응답(StreamingResponseBody)의 쿼리는 요청 스레드 밖이므로 세지 않는다
+ */
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final QueryCountReporter reporter;
+    private final int requestBudget;
+    private final boolean failOnBudgetExceeded;
+
+    public QueryCountFilter(QueryCountReporter reporter,
+                            @Value("${app.query-count.request-budget:0}") int requestBudget,
+                            @Value("${app.query-count.fail-on-budget-exceeded:false}") boolean failOnBudgetExceeded) {
+        this.reporter = reporter;
+        this.requestBudget = requestBudget;
+        this.failOnBudgetExceeded = failOnBudgetExceeded;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        QueryCounter counter = QueryCounter.open(request.getMethod() + " " + request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            counter.close();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            reporter.report("http.server.queries", counter,
+                    Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString()));
+        }
+
+        if (requestBudget > 0 && counter.getCount() > requestBudget) {
+            if (failOnBudgetExceeded) {
+                counter.assertAtMost(requestBudget);
+            }
+            log.warn("{} executed {} queries (budget {})", counter.getName(), counter.getCount(), requestBudget);
+        }
+    }
+}
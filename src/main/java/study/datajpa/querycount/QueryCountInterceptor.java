@@ -0,0 +1,32 @@
+package study.datajpa.querycount;
+
+import io.micrometer.core.instrument.Tags;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * 리포지토리 메소드 단위로 쿼리 수를 센다 - 트랜잭션 커밋 시 flush 되는 쿼리까지 포함하도록 가장 바깥에 둔다
+ * 메소드가 반환한 뒤 지연 로딩되는 쿼리는 호출한 쪽 범위(HTTP 요청)에서 센다
+ */
+public class QueryCountInterceptor implements MethodInterceptor {
+
+    private final String repositoryName;
+    private final QueryCountReporter reporter;
+
+    public QueryCountInterceptor(Class<?> repositoryInterface, QueryCountReporter reporter) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+        this.reporter = reporter;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String methodName = invocation.getMethod().getName();
+        QueryCounter counter = QueryCounter.open(repositoryName + "." + methodName);
+        try {
+            return invocation.proceed();
+        } finally {
+            counter.close();
+            reporter.report("repository.queries", counter, Tags.of("repository", repositoryName, "method", methodName));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package study.datajpa.querycount;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy 실행 이벤트를 현재 {@link QueryCounter}에 기록한다 - 배치 실행은 한 번으로 센다
+ */
+@Component
+public class QueryCountListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        if (QueryCounter.current() != null) {
+            QueryCounter.record(statementInformation.getSql());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package study.datajpa.querycount;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 끝난 {@link QueryCounter} 범위의 쿼리 수를 메트릭으로 남기고 N+1 의심 쿼리를 경고한다
+ */
+@Component
+public class QueryCountReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountReporter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+
+    public QueryCountReporter(MeterRegistry meterRegistry,
+                              @Value("${app.query-count.n-plus-one-threshold:3}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    public void report(String metricName, QueryCounter counter, Tags tags) {
+        DistributionSummary.builder(metricName)
+                .baseUnit("queries")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(counter.getCount());
+
+        Map<String, Integer> repeated = counter.getRepeatedSelects(nPlusOneThreshold);
+        if (repeated.isEmpty()) {
+            return;
+        }
+        meterRegistry.counter(metricName + ".repeated", tags).increment();
+        repeated.forEach((sql, times) ->
+                log.warn("possible N+1 in {}: same select executed {} times - {}", counter.getName(), times, sql));
+    }
+}
@@ -0,0 +1,15 @@
+package study.datajpa.querycount;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 작업을 제출한 스레드의 {@link QueryCounter} 범위를 작업 스레드로 넘긴다
+ * - queryExecutor 에서 실행한 비동기 조회도 요청 쿼리 수와 요청 예산에 포함된다
+ */
+public class QueryCountTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return QueryCounter.propagate(runnable);
+    }
+}
@@ -0,0 +1,125 @@
+package study.datajpa.querycount;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 현재 스레드에서 실행된 SQL 수를 센다
+ * - 범위는 중첩될 수 있고, 안쪽 범위에서 센 SQL은 바깥 범위에도 더해진다
+ * - 실행 횟수는 {@link QueryCountListener}가 p6spy 이벤트로 기록한다
+ * - {@link #propagate(Runnable)} 로 감싼 작업은 다른 스레드에서 실행돼도 지금 범위에 더해진다 ({@link QueryCountTaskDecorator})
+ * <pre>
+ * try (QueryCounter counter = QueryCounter.open("findMembers")) {
+ *     ...
+ *     counter.assertAtMost(2);
+ * }
+ * </pre>
+ */
+public final class QueryCounter implements AutoCloseable {
+
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final QueryCounter parent;
+    private final Map<String, Integer> statements = new HashMap<>();
+    private int count;
+
+    private QueryCounter(String name, @Nullable QueryCounter parent) {
+        this.name = name;
+        this.parent = parent;
+    }
+
+    public static QueryCounter open(String name) {
+        QueryCounter counter = new QueryCounter(name, CURRENT.get());
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    @Nullable
+    public static QueryCounter current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * task 를 지금 스레드의 범위 안에서 실행하도록 감싼다 - 범위가 없으면 그대로 반환
+     */
+    public static Runnable propagate(Runnable task) {
+        QueryCounter scope = CURRENT.get();
+        if (scope == null) {
+            return task;
+        }
+        return () -> {
+            QueryCounter previous = CURRENT.get();
+            CURRENT.set(scope);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    static void record(String sql) {
+        for (QueryCounter counter = CURRENT.get(); counter != null; counter = counter.parent) {
+            counter.add(sql);
+        }
+    }
+
+    // propagate 된 작업이 여러 스레드에서 같은 범위에 기록할 수 있다
+    private synchronized void add(String sql) {
+        count++;
+        statements.merge(sql, 1, Integer::sum);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * threshold 번 이상 반복된 같은 select - 지연 로딩으로 생긴 N+1 형태
+     */
+    public synchronized Map<String, Integer> getRepeatedSelects(int threshold) {
+        if (count < threshold) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        statements.forEach((sql, times) -> {
+            if (times >= threshold && sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+                repeated.put(sql, times);
+            }
+        });
+        return repeated;
+    }
+
+    public synchronized void assertAtMost(int budget) {
+        if (count > budget) {
+            throw new QueryBudgetExceededException(name, budget, count, statements);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (CURRENT.get() != this) {
+            return;
+        }
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class BatchInsertResult {
+
+    private final long rows;
+    private final long elapsedNanos;
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+    }
+
+}
@@ -0,0 +1,11 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Item;
+
+public interface ItemCustomRepository {
+
+    /**
+     * merge 없이 persist + JDBC 배치로만 저장한다 - 이미 존재하는 id면 예외
+     */
+    long insertAll(Iterable<? extends Item> items);
+}
@@ -0,0 +1,32 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Item;
+
+import javax.persistence.EntityManager;
+
+@RequiredArgsConstructor
+public class ItemCustomRepositoryImpl implements ItemCustomRepository {
+
+    private static final int BATCH_SIZE = 100;
+
+    private final EntityManager em;
+
+    @Override
+    @Transactional
+    public long insertAll(Iterable<? extends Item> items) {
+        long count = 0;
+        for (Item item : items) {
+            em.persist(item);
+            // 배치마다 비워서 flush 시 변경 감지 대상을 현재 배치로 한정
+            if (++count % BATCH_SIZE == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+}
@@ -0,0 +1,36 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Base64;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * (username, member_id) 키셋 페이징의 이어보기 토큰
+ */
+@Getter
+@RequiredArgsConstructor
+public class KeysetCursor {
+
+    private final String username;
+    private final Long id;
+    private final boolean backward;
+
+    public String encode() {
+        String raw = (backward ? "b" : "f") + ":" + id + ":" + username;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), UTF_8);
+            String[] parts = raw.split(":", 3);
+            return new KeysetCursor(parts[2], Long.valueOf(parts[1]), "b".equals(parts[0]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+}
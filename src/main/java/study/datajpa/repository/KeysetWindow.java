@@ -0,0 +1,34 @@
+package study.datajpa.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 키셋 페이징 결과 - 다음/이전 커서가 없으면 null
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetWindow<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final String prevCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrevious() {
+        return prevCursor != null;
+    }
+
+    public <U> KeysetWindow<U> map(Function<? super T, ? extends U> converter) {
+        List<U> converted = content.stream().map(converter).collect(Collectors.toList());
+        return new KeysetWindow<>(converted, nextCursor, prevCursor);
+    }
+
+}
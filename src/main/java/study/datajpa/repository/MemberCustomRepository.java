@@ -1,9 +1,77 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.BulkOperationResult;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface MemberCustomRepository {
     List<Member> findMemberCustom();
+
+    /**
+     * username in (:names) - 중복 제거 후 app.in-list.chunk-size 개씩 나눠 조회하고 합친다
+     */
+    List<Member> findByNames(List<String> names);
+
+    /**
+     * findByNames 와 같지만 청크를 별도 트랜잭션으로 동시에 조회한다
+     * - 결과는 준영속 상태, team 은 fetch join 으로 함께 가져온다
+     * - 호출 측 트랜잭션 안에서 부르면 그 트랜잭션에서 차례로 조회한다 (결과도 영속 상태)
+     */
+    List<Member> findByNamesInParallel(Collection<String> names);
+
+    KeysetWindow<Member> findMemberWindow(KeysetCursor cursor, int size, Sort.Direction direction);
+
+    /**
+     * 엔티티 대신 MemberDto(id, username, team.name)만 조회하는 페이징
+     * - 정렬 가능 속성: id, username, age, teamName
+     * - 전체 건수는 30초 동안 캐시한다 (PageCount CACHED)
+     */
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+    /**
+     * findByNativeProjection 과 같은 결과를 JdbcTemplate 으로 조회 - 컬럼 인덱스로 MemberDto 를 바로 만든다
+     * - 정렬 가능 속성: id, username, age, teamName
+     */
+    Page<MemberDto> findMemberDtoNative(Pageable pageable);
+
+    /**
+     * MemberSpec 조합과 같은 검색 - 조건 조합(모양)별로 만든 JPQL을 재사용하고 값만 바인딩한다
+     * Criteria 트리 생성/렌더링 없이 Hibernate 쿼리 플랜 캐시를 그대로 탄다
+     */
+    List<Member> search(MemberSearchCondition condition);
+
+    /**
+     * findAll(spec) 과 같은 결과를 조건 모양별로 캐시된 JPQL 로 조회 - {@link #search(MemberSearchCondition)} 참고
+     */
+    List<Member> search(MemberSpec spec);
+
+    /**
+     * 전체 회원을 forward-only 커서로 읽으면서 fetchSize 건마다 영속성 컨텍스트를 비운다
+     * - 호출 측 트랜잭션에 참여하면 그 영속성 컨텍스트도 비워지므로 변경 사항은 먼저 flush 할 것
+     */
+    long scrollMembers(int fetchSize, Consumer<? super Member> action);
+
+    /**
+     * batchSize 단위로 JDBC 배치 insert 후 flush/clear
+     * - 연관된 Team은 미리 영속 상태여야 하고, 저장된 Member는 준영속 상태로 반환된다
+     */
+    BatchInsertResult saveAllBatched(Iterable<Member> members, int batchSize);
+
+    /**
+     * age 이상인 회원의 나이를 1 증가 - 대상 회원을 id 순으로 chunkSize 명씩 나눠서 각각 커밋
+     */
+    BulkOperationResult bulkAgePlusChunked(int age, int chunkSize);
+
+    /**
+     * age 미만인 회원 삭제 - 대상 회원을 id 순으로 chunkSize 명씩 나눠서 각각 커밋
+     */
+    BulkOperationResult deleteByAgeLessThanChunked(int age, int chunkSize);
 }
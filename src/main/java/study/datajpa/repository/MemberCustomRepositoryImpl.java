@@ -1,19 +1,347 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.BulkOperationResult;
+import study.datajpa.repository.support.ChunkedBulkExecutor;
+import study.datajpa.repository.support.InListQueryExecutor;
+import study.datajpa.repository.support.NativePageExecutor;
+import study.datajpa.repository.support.PageCount;
+import study.datajpa.repository.support.PageCounter;
 
 import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 @RequiredArgsConstructor
 public class MemberCustomRepositoryImpl implements MemberCustomRepository {
 
+    /**
+     * findMemberDtoPage 전체 건수 캐시 시간 - fragment 메서드에는 @PageCount 가 적용되지 않으므로 여기서 직접 지정
+     */
+    private static final long DTO_PAGE_COUNT_TTL_SECONDS = 30;
+
+    /**
+     * MemberDto 정렬 속성 -> JPQL 경로, 정렬 조건이 JPQL에 그대로 들어가므로 허용 목록만 사용
+     */
+    private static final Map<String, String> DTO_SORT_PATHS = Map.of(
+            "id", "m.id",
+            "username", "m.username",
+            "age", "m.age",
+            "teamName", "t.name");
+
+    /**
+     * 네이티브 조회 정렬 속성 -> 컬럼
+     */
+    private static final Map<String, String> NATIVE_SORT_COLUMNS = Map.of(
+            "id", "m.member_id",
+            "username", "m.username",
+            "age", "m.age",
+            "teamName", "t.name");
+
+    private static final RowMapper<MemberDto> MEMBER_DTO_ROW = (rs, rowNum) ->
+            new MemberDto(rs.getLong(1), rs.getString(2), rs.getString(3));
+
+    private static final int MAX_FETCH_SIZE = 1000;
+
+    private static final String QUERY_TIMEOUT_HINT = "javax.persistence.query.timeout";
+
+    // 검색 조건 모양 비트
+    private static final int USERNAME = 1;
+    private static final int TEAM_NAME = 1 << 1;
+    private static final int AGE_GOE = 1 << 2;
+    private static final int AGE_LOE = 1 << 3;
+
+    /**
+     * 조건 모양 -> JPQL, 모양은 최대 16가지
+     */
+    private static final Map<Integer, String> SEARCH_JPQL = new ConcurrentHashMap<>();
+
     private final EntityManager em;
+    private final ChunkedBulkExecutor chunkedBulkExecutor;
+    private final PageCounter pageCounter;
+    private final InListQueryExecutor inListQueryExecutor;
+    private final NativePageExecutor nativePageExecutor;
+
+    /**
+     * findMemberDtoPage 쿼리 타임아웃 - 비동기 조회가 시간 초과로 버려져도 DB 쿼리와 커넥션이 같이 끝나도록 맞춘다
+     */
+    @Value("${app.async-query.timeout:5s}")
+    private Duration queryTimeout;
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m", Member.class)
                 .getResultList();
     }
+
+    @Override
+    public List<Member> findByNames(List<String> names) {
+        return inListQueryExecutor.query(names, chunk -> em
+                .createQuery("select m from Member m where m.username in :names", Member.class)
+                .setParameter("names", chunk)
+                .getResultList());
+    }
+
+    /**
+     * 리포지토리 기본 읽기 전용 트랜잭션을 시작하지 않는다 - 호출 스레드가 커넥션을 잡고 청크를 기다리지 않도록
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Member> findByNamesInParallel(Collection<String> names) {
+        return inListQueryExecutor.queryInParallel(names, chunk -> em
+                .createQuery("select m from Member m left join fetch m.team where m.username in :names", Member.class)
+                .setParameter("names", chunk)
+                .getResultList());
+    }
+
+    @Override
+    public KeysetWindow<Member> findMemberWindow(KeysetCursor cursor, int size, Sort.Direction direction) {
+        boolean backward = cursor != null && cursor.isBackward();
+        // 이전 페이지는 정렬을 뒤집어서 조회한 뒤 다시 뒤집는다
+        boolean descending = direction.isDescending() != backward;
+        String op = descending ? "<" : ">";
+        String order = descending ? "desc" : "asc";
+
+        String jpql = "select m from Member m left join fetch m.team"
+                + (cursor == null ? "" : " where m.username " + op + " :username"
+                        + " or (m.username = :username and m.id " + op + " :id)")
+                + " order by m.username " + order + ", m.id " + order;
+
+        TypedQuery<Member> query = em.createQuery(jpql, Member.class)
+                .setMaxResults(size + 1);
+        if (cursor != null) {
+            query.setParameter("username", cursor.getUsername())
+                    .setParameter("id", cursor.getId());
+        }
+
+        List<Member> members = new ArrayList<>(query.getResultList());
+        boolean hasMore = members.size() > size;
+        if (hasMore) {
+            members.remove(size);
+        }
+        if (backward) {
+            Collections.reverse(members);
+        }
+
+        boolean hasNext = backward || hasMore;
+        boolean hasPrevious = backward ? hasMore : cursor != null;
+        if (members.isEmpty()) {
+            return new KeysetWindow<>(members, null, null);
+        }
+
+        Member first = members.get(0);
+        Member last = members.get(members.size() - 1);
+        String next = hasNext ? new KeysetCursor(last.getUsername(), last.getId(), false).encode() : null;
+        String prev = hasPrevious ? new KeysetCursor(first.getUsername(), first.getId(), true).encode() : null;
+        return new KeysetWindow<>(members, next, prev);
+    }
+
+    @Override
+    public Page<MemberDto> findMemberDtoPage(Pageable pageable) {
+        String jpql = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)"
+                + " from Member m left join m.team t"
+                + orderBy(pageable.getSort());
+
+        TypedQuery<MemberDto> query = em.createQuery(jpql, MemberDto.class)
+                .setHint(QUERY_TIMEOUT_HINT, queryTimeout.toMillis());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        // left join 이므로 count 에는 조인이 필요 없다
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable,
+                () -> pageCounter.count(PageCount.Mode.CACHED, DTO_PAGE_COUNT_TTL_SECONDS, Member.class,
+                        "findMemberDtoPage", false,
+                        () -> em.createQuery("select count(m) from Member m", Long.class)
+                                .setHint(QUERY_TIMEOUT_HINT, queryTimeout.toMillis())
+                                .getSingleResult()));
+    }
+
+    @Override
+    public Page<MemberDto> findMemberDtoNative(Pageable pageable) {
+        int fetchSize = pageable.isPaged() ? Math.min(pageable.getPageSize(), MAX_FETCH_SIZE) : MAX_FETCH_SIZE;
+        return nativePageExecutor.page(
+                "select m.member_id, m.username, t.name from member m left join team t on t.id = m.team_id",
+                "select count(*) from member",
+                NATIVE_SORT_COLUMNS, MEMBER_DTO_ROW, pageable, fetchSize);
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+
+        StringBuilder orderBy = new StringBuilder(" order by ");
+        boolean sortedById = false;
+        for (Sort.Order order : sort) {
+            String path = DTO_SORT_PATHS.get(order.getProperty());
+            if (path == null) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+            sortedById |= path.equals("m.id");
+            orderBy.append(path).append(order.isAscending() ? " asc" : " desc").append(", ");
+        }
+        // 같은 값이 있어도 페이지 경계가 흔들리지 않도록 id를 마지막 정렬 기준으로
+        if (!sortedById) {
+            orderBy.append("m.id asc, ");
+        }
+        return orderBy.substring(0, orderBy.length() - 2);
+    }
+
+    @Override
+    public List<Member> search(MemberSearchCondition condition) {
+        int shape = searchShape(condition);
+        TypedQuery<Member> query = em.createQuery(
+                SEARCH_JPQL.computeIfAbsent(shape, MemberCustomRepositoryImpl::searchJpql), Member.class);
+
+        if ((shape & USERNAME) != 0) {
+            query.setParameter("username", condition.getUsername());
+        }
+        if ((shape & TEAM_NAME) != 0) {
+            query.setParameter("teamName", condition.getTeamName());
+        }
+        if ((shape & AGE_GOE) != 0) {
+            query.setParameter("ageGoe", condition.getAgeGoe());
+        }
+        if ((shape & AGE_LOE) != 0) {
+            query.setParameter("ageLoe", condition.getAgeLoe());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public List<Member> search(MemberSpec spec) {
+        return search(spec.toCondition());
+    }
+
+    private static int searchShape(MemberSearchCondition condition) {
+        int shape = 0;
+        if (StringUtils.hasText(condition.getUsername())) {
+            shape |= USERNAME;
+        }
+        if (StringUtils.hasText(condition.getTeamName())) {
+            shape |= TEAM_NAME;
+        }
+        if (condition.getAgeGoe() != null) {
+            shape |= AGE_GOE;
+        }
+        if (condition.getAgeLoe() != null) {
+            shape |= AGE_LOE;
+        }
+        return shape;
+    }
+
+    private static String searchJpql(int shape) {
+        StringBuilder jpql = new StringBuilder("select m from Member m");
+        if ((shape & TEAM_NAME) != 0) {
+            jpql.append(" join m.team t");
+        }
+
+        List<String> where = new ArrayList<>();
+        if ((shape & USERNAME) != 0) {
+            where.add("m.username = :username");
+        }
+        if ((shape & TEAM_NAME) != 0) {
+            where.add("t.name = :teamName");
+        }
+        if ((shape & AGE_GOE) != 0) {
+            where.add("m.age >= :ageGoe");
+        }
+        if ((shape & AGE_LOE) != 0) {
+            where.add("m.age <= :ageLoe");
+        }
+        if (!where.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", where));
+        }
+        return jpql.toString();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long scrollMembers(int fetchSize, Consumer<? super Member> action) {
+        Session session = em.unwrap(Session.class);
+        ScrollableResults results = session
+                .createQuery("select m from Member m left join fetch m.team", Member.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+
+        long count = 0;
+        try {
+            while (results.next()) {
+                action.accept((Member) results.get(0));
+                if (++count % fetchSize == 0) {
+                    session.clear();
+                }
+            }
+        } finally {
+            results.close();
+        }
+        return count;
+    }
+
+    @Override
+    @Transactional
+    public BatchInsertResult saveAllBatched(Iterable<Member> members, int batchSize) {
+        Session session = em.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+
+        long start = System.nanoTime();
+        long rows = 0;
+        try {
+            for (Member member : members) {
+                em.persist(member);
+                if (++rows % batchSize == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            em.flush();
+            em.clear();
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+        return new BatchInsertResult(rows, System.nanoTime() - start);
+    }
+
+    @Override
+    public BulkOperationResult bulkAgePlusChunked(int age, int chunkSize) {
+        return chunkedBulkExecutor.execute(Member.class, "e.age >= :age",
+                "update Member e set e.age = e.age + 1, e.version = e.version + 1"
+                        + " where e.age >= :age and e.id between :fromId and :toId",
+                Map.of("age", age), chunkSize);
+    }
+
+    @Override
+    public BulkOperationResult deleteByAgeLessThanChunked(int age, int chunkSize) {
+        return chunkedBulkExecutor.execute(Member.class, "e.age < :age",
+                "delete from Member e where e.age < :age and e.id between :fromId and :toId",
+                Map.of("age", age), chunkSize);
+    }
 }
@@ -1,7 +1,9 @@
 package study.datajpa.repository;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.PageCounter;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -14,6 +16,9 @@ public class MemberJpaRepository {
     @PersistenceContext
     EntityManager em;
 
+    @Autowired
+    PageCounter pageCounter;
+
     public Member save(Member member) {
         em.persist(member);
         return member;
@@ -69,8 +74,11 @@ public class MemberJpaRepository {
     }
 
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = :age + 1 where m.age >= :age")
+        int resultCount = em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
+        em.clear();
+        pageCounter.evictAfterCommit(Member.class);
+        return resultCount;
     }
 }
@@ -5,16 +5,27 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSuggestionDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.support.PageCount;
 
 import javax.persistence.LockModeType;
 import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
+/**
+ * 이 인터페이스에 선언한 메서드는 기본으로 읽기 전용 트랜잭션 - 스냅샷과 변경 감지 없이 조회하고 flush 하지 않는다
+ * 쓰기/잠금 메서드는 @Transactional 로 다시 선언한다 (save, delete 등 상속 메서드는 SimpleJpaRepository 설정을 따른다)
+ */
 @Repository
+@Transactional(readOnly = true)
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberCustomRepository, JpaSpecificationExecutor<Member> {
 
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
@@ -31,20 +42,31 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberCus
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
-    @Query("select m from Member m where m.username in :names")
-    List<Member> findByNames(@Param("names") List<String> names);
+    /**
+     * username 접두어 검색 - idx_member_username 범위 스캔 (like 'prefix%', 특수문자는 이스케이프)
+     */
+    List<MemberSuggestionDto> findByUsernameStartingWithOrderByUsernameAsc(String prefix, Pageable pageable);
+
+    /**
+     * findMemberDtoPage 를 queryExecutor 스레드에서 별도 트랜잭션/커넥션으로 실행
+     */
+    @Async("queryExecutor")
+    default CompletableFuture<Page<MemberDto>> findMemberDtoPageAsync(Pageable pageable) {
+        return CompletableFuture.completedFuture(findMemberDtoPage(pageable));
+    }
 
     List<Member> findListByUsername(String username);
     Member findMemberByUsername(String username);
     Optional<Member> findOptionalByUsername(String username);
 
     @Query(value = "select m from Member m join m.team t"
-            , countQuery = "select count(m) from Member m where m.age = :age")
+            , countQuery = "select count(m) from Member m join m.team t")
     Page<Member> findPageAll(Pageable pageable);
     Slice<Member> findByAge(int age, Pageable pageable);
 
+    @Transactional
     @Modifying(clearAutomatically = true)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
     @Query("select m from Member m join fetch m.team")
@@ -58,21 +80,34 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberCus
     @EntityGraph("Member.all")
     List<Member> findAll();
 
+    @Override
+    @PageCount(value = PageCount.Mode.CACHED, ttlSeconds = 30)
+    Page<Member> findAll(Pageable pageable);
+
     @Query("select m from Member m")
     List<Member> findAllLazy();
 
     @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
     Member findReadOnlyByUsername(String username);
 
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query("select m from Member m")
+    Stream<Member> streamAllBy();
+
+    @Transactional
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByUsername(String username);
 
     <T> List<T> findProjectionsByUsername(String username, Class<T> clazz);
 
+    <T> List<T> findProjectionsByAge(int age, Class<T> clazz);
+
     @Query(value = "select * from member where username = ?", nativeQuery = true)
     Member findByNativeQuery(String username);
 
-    @Query(value = "select m.member_id as id, m.username, t.name as teamName from member m left join team t"
+    @Query(value = "select m.member_id as id, m.username, t.name as teamName from member m left join team t on t.id = m.team_id"
             , countQuery = "select count(*) from member"
             , nativeQuery = true)
     Page<MemberProjection> findByNativeProjection(Pageable pageable);
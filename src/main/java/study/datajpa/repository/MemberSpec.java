@@ -1,24 +1,94 @@
 package study.datajpa.repository;
 
+import lombok.EqualsAndHashCode;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.Member;
 
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
-public class MemberSpec {
+/**
+ * Specification 조건 - 람다가 아니라 조건 값을 가진 값 객체라서 조합해도 구조(모양)가 남는다
+ * - findAll(spec) 은 호출마다 Criteria 트리를 새로 만들고 렌더링한다
+ * - {@link MemberCustomRepository#search(MemberSpec)} 는 조건 모양별로 캐시된 JPQL 에 값만 바인딩한다
+ * - null 이거나 빈 문자열인 조건은 쓰지 않는다 ({@link MemberSearchCondition} 과 같다)
+ */
+@EqualsAndHashCode
+public final class MemberSpec implements Specification<Member> {
 
-    public static Specification<Member> teamName(final String teamName) {
-        return (root, query, criteriaBuilder) -> {
-            if (StringUtils.hasText(teamName)) return null;
+    private final String username;
+    private final String teamName;
+    private final Integer ageGoe;
+    private final Integer ageLoe;
 
-            Join<Object, Object> t = root.join("team", JoinType.INNER);
-            return criteriaBuilder.equal(t.get("name"), teamName);
-        };
+    private MemberSpec(String username, String teamName, Integer ageGoe, Integer ageLoe) {
+        this.username = StringUtils.hasText(username) ? username : null;
+        this.teamName = StringUtils.hasText(teamName) ? teamName : null;
+        this.ageGoe = ageGoe;
+        this.ageLoe = ageLoe;
+    }
+
+    public static MemberSpec of(MemberSearchCondition condition) {
+        return new MemberSpec(condition.getUsername(), condition.getTeamName(),
+                condition.getAgeGoe(), condition.getAgeLoe());
+    }
+
+    public static MemberSpec teamName(final String teamName) {
+        return new MemberSpec(null, teamName, null, null);
+    }
+
+    public static MemberSpec username(final String username) {
+        return new MemberSpec(username, null, null, null);
+    }
+
+    public static MemberSpec ageBetween(Integer ageGoe, Integer ageLoe) {
+        return new MemberSpec(null, null, ageGoe, ageLoe);
+    }
+
+    /**
+     * 두 조건을 합친다 - 같은 조건에 서로 다른 값을 주면 IllegalArgumentException
+     */
+    public MemberSpec and(MemberSpec other) {
+        return new MemberSpec(merge(username, other.username), merge(teamName, other.teamName),
+                merge(ageGoe, other.ageGoe), merge(ageLoe, other.ageLoe));
+    }
+
+    private static <T> T merge(T value, T other) {
+        if (value != null && other != null && !Objects.equals(value, other)) {
+            throw new IllegalArgumentException("Conflicting condition: " + value + ", " + other);
+        }
+        return value != null ? value : other;
+    }
+
+    public MemberSearchCondition toCondition() {
+        return new MemberSearchCondition(username, teamName, ageGoe, ageLoe);
     }
 
-    public static Specification<Member> username(final String username) {
-        return (root, query, builder) -> builder.equal(root.get("username"), username);
+    @Override
+    public Predicate toPredicate(Root<Member> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (username != null) {
+            predicates.add(builder.equal(root.get("username"), username));
+        }
+        if (teamName != null) {
+            Join<Object, Object> t = root.join("team", JoinType.INNER);
+            predicates.add(builder.equal(t.get("name"), teamName));
+        }
+        if (ageGoe != null) {
+            predicates.add(builder.greaterThanOrEqualTo(root.get("age"), ageGoe));
+        }
+        if (ageLoe != null) {
+            predicates.add(builder.lessThanOrEqualTo(root.get("age"), ageLoe));
+        }
+        return predicates.isEmpty() ? null : builder.and(predicates.toArray(new Predicate[0]));
     }
 }
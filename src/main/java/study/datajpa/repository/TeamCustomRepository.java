@@ -0,0 +1,23 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import study.datajpa.dto.TeamDto;
+import study.datajpa.entity.Team;
+
+public interface TeamCustomRepository {
+
+    /**
+     * 팀 한 페이지와 그 팀들의 members를 함께 초기화해서 반환한다
+     * - 팀 페이지 조회 1번 + 페이지의 팀 id로 members fetch join 1번, 팀 수와 상관없이 쿼리 2번
+     * - 컬렉션 fetch join을 페이징하지 않으므로 메모리 페이징이나 중복 팀이 없다
+     */
+    Slice<Team> findTeamsWithMembers(Pageable pageable);
+
+    /**
+     * 팀 DTO 페이지 - 정렬은 id, name 만 허용 (그 밖의 속성은 IllegalArgumentException)
+     * - 조회/count 쿼리 타임아웃은 app.async-query.timeout, 비동기 조회가 버려져도 커넥션을 오래 잡지 않도록
+     */
+    Page<TeamDto> findTeamDtoPage(Pageable pageable);
+}
@@ -0,0 +1,101 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.TeamDto;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class TeamCustomRepositoryImpl implements TeamCustomRepository {
+
+    private static final String QUERY_TIMEOUT_HINT = "javax.persistence.query.timeout";
+
+    /**
+     * TeamDto 정렬 속성 -> JPQL 경로, 정렬 조건이 JPQL에 그대로 들어가므로 허용 목록만 사용
+     */
+    private static final Map<String, String> DTO_SORT_PATHS = Map.of(
+            "id", "t.id",
+            "name", "t.name");
+
+    private final EntityManager em;
+
+    @Value("${app.async-query.timeout:5s}")
+    private Duration queryTimeout;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Team> findTeamsWithMembers(Pageable pageable) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        TypedQuery<Team> query = em.createQuery(QueryUtils.applySorting("select t from Team t", sort, "t"), Team.class);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize() + 1);
+        }
+
+        List<Team> teams = new ArrayList<>(query.getResultList());
+        boolean hasNext = pageable.isPaged() && teams.size() > pageable.getPageSize();
+        if (hasNext) {
+            teams.remove(pageable.getPageSize());
+        }
+
+        if (!teams.isEmpty()) {
+            // 결과는 쓰지 않는다 - 이미 영속 상태인 팀의 members 컬렉션이 초기화된다
+            List<Long> ids = teams.stream().map(Team::getId).collect(Collectors.toList());
+            em.createQuery("select t from Team t left join fetch t.members where t.id in :ids", Team.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+        }
+        return new SliceImpl<>(teams, pageable, hasNext);
+    }
+
+    @Override
+    public Page<TeamDto> findTeamDtoPage(Pageable pageable) {
+        String jpql = "select new study.datajpa.dto.TeamDto(t.id, t.name) from Team t" + orderBy(pageable.getSort());
+
+        TypedQuery<TeamDto> query = em.createQuery(jpql, TeamDto.class)
+                .setHint(QUERY_TIMEOUT_HINT, queryTimeout.toMillis());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable,
+                () -> em.createQuery("select count(t) from Team t", Long.class)
+                        .setHint(QUERY_TIMEOUT_HINT, queryTimeout.toMillis())
+                        .getSingleResult());
+    }
+
+    private static String orderBy(Sort sort) {
+        StringBuilder orderBy = new StringBuilder(" order by ");
+        boolean sortedById = false;
+        for (Sort.Order order : sort) {
+            String path = DTO_SORT_PATHS.get(order.getProperty());
+            if (path == null) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+            sortedById |= path.equals("t.id");
+            orderBy.append(path).append(order.isAscending() ? " asc" : " desc").append(", ");
+        }
+        // 같은 값이 있어도 페이지 경계가 흔들리지 않도록 id를 마지막 정렬 기준으로
+        if (!sortedById) {
+            orderBy.append("t.id asc, ");
+        }
+        return orderBy.substring(0, orderBy.length() - 2);
+    }
+}
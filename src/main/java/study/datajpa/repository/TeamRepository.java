@@ -1,15 +1,25 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.TeamDto;
 import study.datajpa.entity.Team;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * 선언한 조회 메서드는 기본으로 읽기 전용 트랜잭션 ({@link MemberRepository} 참고)
+ */
 @Repository
-public interface TeamRepository extends JpaRepository<Team, Long> {
+@Transactional(readOnly = true)
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamCustomRepository {
 
 //    @Override
 //    @EntityGraph(attributePaths = "members")
@@ -19,4 +29,12 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
     @Query("select t from Team t join fetch t.members")
     @EntityGraph(attributePaths = "members")
     List<Team> findFetchJoinAll();
+
+    /**
+     * findTeamDtoPage 를 queryExecutor 스레드에서 별도 트랜잭션/커넥션으로 실행
+     */
+    @Async("queryExecutor")
+    default CompletableFuture<Page<TeamDto>> findTeamDtoPageAsync(Pageable pageable) {
+        return CompletableFuture.completedFuture(findTeamDtoPage(pageable));
+    }
 }
@@ -2,6 +2,10 @@ package study.datajpa.repository;
 
 import org.springframework.beans.factory.annotation.Value;
 
+/**
+ * "username age" 표시값 - 동적 프로젝션 파생 쿼리에서는 연결식이 select 절에서 계산된다
+ * (엔티티 로딩과 행마다 SpEL 평가 없음, ComputedProjectionQuery)
+ */
 public interface UsernameOnly {
 
     @Value("#{target.username + ' ' + target.age}")
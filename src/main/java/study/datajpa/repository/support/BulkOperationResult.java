@@ -0,0 +1,22 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@RequiredArgsConstructor
+public class BulkOperationResult {
+
+    private final List<ChunkTiming> chunks;
+
+    public long getTotalRows() {
+        return chunks.stream().mapToLong(ChunkTiming::getRows).sum();
+    }
+
+    public long getTotalElapsedNanos() {
+        return chunks.stream().mapToLong(ChunkTiming::getElapsedNanos).sum();
+    }
+
+}
@@ -0,0 +1,17 @@
+package study.datajpa.repository.support;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ChunkTiming {
+
+    private final long fromId;
+    private final long toId;
+    private final int rows;
+    private final long elapsedNanos;
+
+}
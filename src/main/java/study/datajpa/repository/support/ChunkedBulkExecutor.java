@@ -0,0 +1,133 @@
+package study.datajpa.repository.support;
+
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 조건에 맞는 행을 id 순으로 chunkSize 건씩 나눈 bulk update/delete를 청크마다 별도 트랜잭션으로 실행한다
+ * - 한 문장으로 테이블 전체를 잠그지 않도록 청크 단위로 커밋
+ * - 청크 경계는 조건에 맞는 id 에서 찾으므로 id 가 듬성듬성해도 빈 트랜잭션이 생기지 않는다
+ * - 호출 측 영속성 컨텍스트에서는 범위에 속한 엔티티만 준영속으로 만든다 (clear 하지 않음)
+ * - 2차 캐시는 JPQL bulk 연산 시 Hibernate가 해당 엔티티 리전과 쿼리 캐시를 무효화하고, Page 건수 캐시는 청크마다 비운다
+ * 호출 측 영속성 컨텍스트에 flush 되지 않은 변경이 있으면 실행하지 않는다 - 준영속으로 만들면서 변경이 사라지므로
+ * 청크 트랜잭션은 REQUIRES_NEW 이므로 호출 측 트랜잭션이 같은 행을 수정 중이면 락을 기다리게 된다
+ */
+@Component
+public class ChunkedBulkExecutor {
+
+    private final EntityManager em;
+    private final PageCounter pageCounter;
+    private final TransactionTemplate chunkTransaction;
+
+    public ChunkedBulkExecutor(EntityManager em, PageCounter pageCounter, PlatformTransactionManager transactionManager) {
+        this.em = em;
+        this.pageCounter = pageCounter;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @param condition  대상 행 조건, 엔티티 별칭은 e (예: "e.age >= :age")
+     * @param jpql       condition 과 :fromId, :toId (포함) 범위 조건을 가진 update/delete 문
+     * @param parameters condition 과 jpql 에 공통으로 바인딩할 값
+     */
+    public BulkOperationResult execute(Class<?> entityClass, String condition, String jpql,
+                                       Map<String, ?> parameters, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        checkNoPendingChanges();
+
+        String entityName = em.getMetamodel().entity(entityClass).getName();
+        String firstIdJpql = "select min(e.id) from " + entityName + " e where " + condition + " and e.id > :afterId";
+        String idsJpql = "select e.id from " + entityName + " e where " + condition + " and e.id >= :fromId order by e.id";
+        String lastIdJpql = "select max(e.id) from " + entityName + " e where " + condition + " and e.id >= :fromId";
+
+        List<ChunkTiming> chunks = new ArrayList<>();
+        Long fromId = bind(em.createQuery(firstIdJpql, Long.class), parameters)
+                .setParameter("afterId", Long.MIN_VALUE)
+                .getSingleResult();
+        while (fromId != null) {
+            long chunkFromId = fromId;
+            long toId = lastIdOfChunk(idsJpql, lastIdJpql, parameters, chunkFromId, chunkSize);
+
+            long start = System.nanoTime();
+            Integer rows = chunkTransaction.execute(status -> {
+                Query query = em.createQuery(jpql)
+                        .setParameter("fromId", chunkFromId)
+                        .setParameter("toId", toId);
+                parameters.forEach(query::setParameter);
+                return query.executeUpdate();
+            });
+            chunks.add(new ChunkTiming(chunkFromId, toId, rows == null ? 0 : rows, System.nanoTime() - start));
+
+            // 청크는 이미 커밋됐으므로 바로 비운다
+            pageCounter.evict(entityClass);
+            detachRange(entityClass, chunkFromId, toId);
+
+            fromId = bind(em.createQuery(firstIdJpql, Long.class), parameters)
+                    .setParameter("afterId", toId)
+                    .getSingleResult();
+        }
+        return new BulkOperationResult(chunks);
+    }
+
+    /**
+     * fromId 부터 조건에 맞는 chunkSize 번째 id, 남은 행이 그보다 적으면 마지막 id
+     */
+    private long lastIdOfChunk(String idsJpql, String lastIdJpql, Map<String, ?> parameters,
+                               long fromId, int chunkSize) {
+        List<Long> last = bind(em.createQuery(idsJpql, Long.class), parameters)
+                .setParameter("fromId", fromId)
+                .setFirstResult(chunkSize - 1)
+                .setMaxResults(1)
+                .getResultList();
+        if (!last.isEmpty()) {
+            return last.get(0);
+        }
+        Long lastId = bind(em.createQuery(lastIdJpql, Long.class), parameters)
+                .setParameter("fromId", fromId)
+                .getSingleResult();
+        return lastId == null ? fromId : lastId;
+    }
+
+    private static <Q extends Query> Q bind(Q query, Map<String, ?> parameters) {
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+
+    private void checkNoPendingChanges() {
+        if (TransactionSynchronizationManager.isActualTransactionActive() && em.isJoinedToTransaction()
+                && em.unwrap(SessionImplementor.class).isDirty()) {
+            throw new IllegalStateException("Flush or commit pending changes before running a chunked bulk operation");
+        }
+    }
+
+    private void detachRange(Class<?> entityClass, long fromId, long toId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContext().reentrantSafeEntityEntries()) {
+            Object id = entry.getValue().getId();
+            if (entityClass.isInstance(entry.getKey()) && id instanceof Number) {
+                long value = ((Number) id).longValue();
+                if (value >= fromId && value <= toId) {
+                    em.detach(entry.getKey());
+                }
+            }
+        }
+    }
+}
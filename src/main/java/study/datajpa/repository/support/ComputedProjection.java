@@ -0,0 +1,241 @@
+package study.datajpa.repository.support;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.Literal;
+import org.springframework.expression.spel.ast.OpPlus;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.Entity;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 인터페이스 프로젝션의 @Value 문자열 연결식을 select 절 식으로 바꾼다
+ * - 지원하는 식: target.속성(경로), 리터럴, 그리고 이들을 + 로 이은 문자열 연결 (예: #{target.username + ' ' + target.age})
+ * - 메서드 호출, 빈 참조, 숫자끼리 더하기 등 그 밖의 식이 하나라도 있으면 컴파일하지 않는다 (기존 SpEL 경로)
+ * - null 인 속성은 SpEL 과 달리 DB 의 concat 규칙을 따른다
+ */
+final class ComputedProjection {
+
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+    private static final Map<Key, Optional<ComputedProjection>> CACHE = new ConcurrentHashMap<>();
+
+    private final List<Accessor> accessors;
+
+    private ComputedProjection(List<Accessor> accessors) {
+        this.accessors = accessors;
+    }
+
+    /**
+     * @Value 게터가 있고 모두 컴파일되면 결과, 아니면 empty
+     */
+    static Optional<ComputedProjection> compile(Class<?> projectionType, Class<?> domainType) {
+        return CACHE.computeIfAbsent(new Key(projectionType, domainType), key -> doCompile(projectionType, domainType));
+    }
+
+    private static Optional<ComputedProjection> doCompile(Class<?> projectionType, Class<?> domainType) {
+        if (!projectionType.isInterface()) {
+            return Optional.empty();
+        }
+
+        List<Accessor> accessors = new ArrayList<>();
+        boolean computed = false;
+        for (Method method : projectionType.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            if (method.isDefault() || method.getParameterCount() != 0
+                    || !method.getName().startsWith("get") || method.getName().length() <= 3) {
+                return Optional.empty();
+            }
+
+            String property = StringUtils.uncapitalize(method.getName().substring(3));
+            Value value = method.getAnnotation(Value.class);
+            try {
+                if (value == null) {
+                    PropertyPath path = singlePath(property, domainType);
+                    if (path == null) {
+                        return Optional.empty();
+                    }
+                    accessors.add(new Accessor(property, List.of(path)));
+                    continue;
+                }
+                if (method.getReturnType() != String.class) {
+                    return Optional.empty();
+                }
+                List<Object> terms = concatTerms(PARSER.parseExpression(value.value(), ParserContext.TEMPLATE_EXPRESSION),
+                        domainType);
+                if (terms == null) {
+                    return Optional.empty();
+                }
+                accessors.add(new Accessor(property, terms));
+                computed = true;
+            } catch (ParseException | PropertyReferenceException e) {
+                return Optional.empty();
+            }
+        }
+        return computed ? Optional.of(new ComputedProjection(accessors)) : Optional.empty();
+    }
+
+    /**
+     * 연결식을 리터럴(String)과 속성 경로(PropertyPath) 목록으로 펼친다 - 지원하지 않는 식이면 null
+     */
+    private static List<Object> concatTerms(org.springframework.expression.Expression expression, Class<?> domainType) {
+        if (!(expression instanceof SpelExpression)) {
+            return null;
+        }
+        List<Object> terms = new ArrayList<>();
+        if (!flatten(((SpelExpression) expression).getAST(), domainType, terms)) {
+            return null;
+        }
+        // 숫자끼리의 + 는 덧셈이다 - 첫 두 항 중 하나가 문자열이어야 처음부터 끝까지 연결이 된다
+        if (terms.size() > 1 && !isString(terms.get(0)) && !isString(terms.get(1))) {
+            return null;
+        }
+        return terms;
+    }
+
+    private static boolean flatten(SpelNode node, Class<?> domainType, List<Object> terms) {
+        if (node instanceof OpPlus) {
+            if (node.getChildCount() != 2) {
+                return false;
+            }
+            return flatten(node.getChild(0), domainType, terms) && flatten(node.getChild(1), domainType, terms);
+        }
+        if (node instanceof Literal) {
+            terms.add(String.valueOf(((Literal) node).getLiteralValue().getValue()));
+            return true;
+        }
+        if (node instanceof CompoundExpression && node.getChildCount() > 1
+                && isReference(node.getChild(0), "target")) {
+            StringBuilder path = new StringBuilder();
+            for (int i = 1; i < node.getChildCount(); i++) {
+                if (!isReference(node.getChild(i), null)) {
+                    return false;
+                }
+                path.append(i > 1 ? "." : "").append(((PropertyOrFieldReference) node.getChild(i)).getName());
+            }
+            PropertyPath propertyPath = singlePath(path.toString(), domainType);
+            terms.add(propertyPath);
+            return propertyPath != null;
+        }
+        return false;
+    }
+
+    /**
+     * 속성 경로 - 컬렉션을 거치는 경로는 행이 늘어나므로 null
+     */
+    private static PropertyPath singlePath(String path, Class<?> domainType) {
+        PropertyPath propertyPath = PropertyPath.from(path, domainType);
+        for (PropertyPath segment = propertyPath; segment != null; segment = segment.next()) {
+            if (segment.isCollection()) {
+                return null;
+            }
+        }
+        return propertyPath;
+    }
+
+    /**
+     * 속성 경로 -> Criteria 경로, 연관 엔티티는 left join 하고 같은 경로의 조인은 joins 로 재사용한다
+     */
+    static Expression<?> path(Root<?> root, PropertyPath propertyPath, Map<String, Join<?, ?>> joins) {
+        Path<?> current = root;
+        StringBuilder joined = new StringBuilder();
+        for (PropertyPath segment = propertyPath; segment.hasNext(); segment = segment.next()) {
+            joined.append(joined.length() == 0 ? "" : ".").append(segment.getSegment());
+            String name = segment.getSegment();
+            if (segment.getType().isAnnotationPresent(Entity.class) && current instanceof From) {
+                From<?, ?> from = (From<?, ?>) current;
+                current = joins.computeIfAbsent(joined.toString(), key -> from.join(name, JoinType.LEFT));
+            } else {
+                current = current.get(name);
+            }
+        }
+        return current.get(propertyPath.getLeafProperty().getSegment());
+    }
+
+    private static boolean isReference(SpelNode node, String name) {
+        return node instanceof PropertyOrFieldReference
+                && (name == null || name.equals(((PropertyOrFieldReference) node).getName()));
+    }
+
+    private static boolean isString(Object term) {
+        return term instanceof String || ((PropertyPath) term).getLeafProperty().getType() == String.class;
+    }
+
+    /**
+     * 게터 이름을 별칭으로 하는 select 절 - 연결식은 concat(...), 나머지 게터는 속성 그대로
+     */
+    List<Selection<?>> selections(Root<?> root, CriteriaBuilder builder, Map<String, Join<?, ?>> joins) {
+        List<Selection<?>> selections = new ArrayList<>();
+        for (Accessor accessor : accessors) {
+            selections.add(accessor.expression(root, builder, joins).alias(accessor.property));
+        }
+        return selections;
+    }
+
+    private static final class Accessor {
+
+        private final String property;
+        private final List<Object> terms;
+
+        private Accessor(String property, List<Object> terms) {
+            this.property = property;
+            this.terms = terms;
+        }
+
+        Expression<?> expression(Root<?> root, CriteriaBuilder builder, Map<String, Join<?, ?>> joins) {
+            if (terms.size() == 1 && terms.get(0) instanceof PropertyPath) {
+                return path(root, (PropertyPath) terms.get(0), joins);
+            }
+
+            Expression<String> concat = null;
+            for (Object term : terms) {
+                Expression<String> next = term instanceof String
+                        ? builder.literal((String) term)
+                        : asString(path(root, (PropertyPath) term, joins));
+                concat = concat == null ? next : builder.concat(concat, next);
+            }
+            return concat;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Expression<String> asString(Expression<?> expression) {
+            return expression.getJavaType() == String.class
+                    ? (Expression<String>) expression
+                    : expression.as(String.class);
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+
+        private final Class<?> projectionType;
+        private final Class<?> domainType;
+    }
+}
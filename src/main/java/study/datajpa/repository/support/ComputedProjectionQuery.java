@@ -0,0 +1,192 @@
+package study.datajpa.repository.support;
+
+import org.springframework.data.jpa.repository.query.JpaParameters;
+import org.springframework.data.jpa.repository.query.JpaQueryMethod;
+import org.springframework.data.jpa.repository.query.PartTreeJpaQuery;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.query.Parameter;
+import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 동적 프로젝션 파생 쿼리 (예: findProjectionsByUsername(username, Class&lt;T&gt; type)) 에서
+ * type 의 @Value 연결식을 select 절로 옮겨 실행한다 ({@link ComputedProjection})
+ * - 컴파일되는 프로젝션이면 엔티티 대신 계산된 컬럼만 튜플로 조회, 아니면 원래 쿼리 ({@link PartTreeJpaQuery}) 그대로
+ * - 조건은 =, &lt;&gt;, &lt;, &lt;=, &gt;, &gt;=, between, in, is null, true/false 만 - 그 밖의 조건, 대소문자 무시,
+ *   Pageable/Sort 파라미터, distinct, top/first, 락이 있는 메서드는 감싸지 않는다
+ */
+class ComputedProjectionQuery implements RepositoryQuery {
+
+    private static final Set<Part.Type> SUPPORTED_TYPES = EnumSet.of(
+            Part.Type.SIMPLE_PROPERTY, Part.Type.NEGATING_SIMPLE_PROPERTY,
+            Part.Type.GREATER_THAN, Part.Type.GREATER_THAN_EQUAL, Part.Type.LESS_THAN, Part.Type.LESS_THAN_EQUAL,
+            Part.Type.BETWEEN, Part.Type.IN, Part.Type.NOT_IN, Part.Type.IS_NULL, Part.Type.IS_NOT_NULL,
+            Part.Type.TRUE, Part.Type.FALSE);
+
+    private final RepositoryQuery delegate;
+    private final JpaParameters parameters;
+    private final PartTree tree;
+    private final Class<?> domainType;
+    private final EntityManager em;
+    private final GeneratedProjectionFactory projectionFactory;
+
+    private ComputedProjectionQuery(RepositoryQuery delegate, JpaParameters parameters, PartTree tree,
+                                    Class<?> domainType, EntityManager em, GeneratedProjectionFactory projectionFactory) {
+        this.delegate = delegate;
+        this.parameters = parameters;
+        this.tree = tree;
+        this.domainType = domainType;
+        this.em = em;
+        this.projectionFactory = projectionFactory;
+    }
+
+    /**
+     * 지원하는 모양의 파생 쿼리면 감싸고, 아니면 query 그대로
+     */
+    static RepositoryQuery wrap(RepositoryQuery query, RepositoryMetadata metadata, ProjectionFactory factory,
+                                EntityManager em) {
+        if (!(query instanceof PartTreeJpaQuery) || !(factory instanceof GeneratedProjectionFactory)) {
+            return query;
+        }
+
+        JpaQueryMethod method = (JpaQueryMethod) query.getQueryMethod();
+        JpaParameters parameters = method.getParameters();
+        if (!parameters.hasDynamicProjection() || parameters.hasPageableParameter() || parameters.hasSortParameter()
+                || !method.isCollectionQuery() || method.getLockModeType() != null) {
+            return query;
+        }
+
+        PartTree tree = new PartTree(method.getName(), metadata.getDomainType());
+        if (tree.isDistinct() || tree.isLimiting() || tree.isCountProjection() || tree.isExistsProjection()
+                || tree.isDelete()) {
+            return query;
+        }
+        for (Part part : tree.getParts()) {
+            if (!SUPPORTED_TYPES.contains(part.getType()) || part.shouldIgnoreCase() != Part.IgnoreCaseType.NEVER) {
+                return query;
+            }
+        }
+        return new ComputedProjectionQuery(query, parameters, tree, metadata.getDomainType(), em,
+                (GeneratedProjectionFactory) factory);
+    }
+
+    @Override
+    public Object execute(Object[] values) {
+        Class<?> type = (Class<?>) values[parameters.getDynamicProjectionIndex()];
+        Optional<ComputedProjection> projection = type == null
+                ? Optional.empty() : ComputedProjection.compile(type, domainType);
+        Function<Map<?, ?>, ?> instantiator = projection.isPresent() ? projectionFactory.computedInstantiator(type) : null;
+        if (instantiator == null) {
+            return delegate.execute(values);
+        }
+
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<?> root = query.from(domainType);
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+
+        Iterator<Object> arguments = bindableValues(values).iterator();
+        List<Predicate> or = new ArrayList<>();
+        for (PartTree.OrPart orPart : tree) {
+            List<Predicate> and = new ArrayList<>();
+            for (Part part : orPart) {
+                and.add(predicate(part, root, builder, joins, arguments));
+            }
+            or.add(builder.and(and.toArray(new Predicate[0])));
+        }
+        if (!or.isEmpty()) {
+            query.where(builder.or(or.toArray(new Predicate[0])));
+        }
+        query.multiselect(projection.get().selections(root, builder, joins));
+        if (tree.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(tree.getSort(), root, builder));
+        }
+
+        List<Object> result = new ArrayList<>();
+        for (Tuple tuple : em.createQuery(query).getResultList()) {
+            Map<String, Object> row = new HashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            result.add(instantiator.apply(row));
+        }
+        return result;
+    }
+
+    private List<Object> bindableValues(Object[] values) {
+        List<Object> bindable = new ArrayList<>();
+        for (Parameter parameter : parameters.getBindableParameters()) {
+            bindable.add(values[parameter.getIndex()]);
+        }
+        return bindable;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate predicate(Part part, Root<?> root, CriteriaBuilder builder,
+                                       Map<String, Join<?, ?>> joins, Iterator<Object> arguments) {
+        Expression path = ComputedProjection.path(root, part.getProperty(), joins);
+        switch (part.getType()) {
+            case SIMPLE_PROPERTY: {
+                Object value = arguments.next();
+                return value == null ? builder.isNull(path) : builder.equal(path, value);
+            }
+            case NEGATING_SIMPLE_PROPERTY: {
+                Object value = arguments.next();
+                return value == null ? builder.isNotNull(path) : builder.notEqual(path, value);
+            }
+            case GREATER_THAN:
+                return builder.greaterThan(path, (Comparable) arguments.next());
+            case GREATER_THAN_EQUAL:
+                return builder.greaterThanOrEqualTo(path, (Comparable) arguments.next());
+            case LESS_THAN:
+                return builder.lessThan(path, (Comparable) arguments.next());
+            case LESS_THAN_EQUAL:
+                return builder.lessThanOrEqualTo(path, (Comparable) arguments.next());
+            case BETWEEN:
+                return builder.between(path, (Comparable) arguments.next(), (Comparable) arguments.next());
+            case IN:
+                return path.in((Collection<?>) arguments.next());
+            case NOT_IN:
+                return builder.not(path.in((Collection<?>) arguments.next()));
+            case IS_NULL:
+                return builder.isNull(path);
+            case IS_NOT_NULL:
+                return builder.isNotNull(path);
+            case TRUE:
+                return builder.isTrue(path);
+            case FALSE:
+                return builder.isFalse(path);
+            default:
+                throw new IllegalStateException("Unsupported part type: " + part.getType());
+        }
+    }
+
+    @Override
+    public QueryMethod getQueryMethod() {
+        return delegate.getQueryMethod();
+    }
+}
@@ -0,0 +1,77 @@
+package study.datajpa.repository.support;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.CrudMethodMetadata;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ReflectionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import java.lang.reflect.Method;
+
+/**
+ * 리포지토리 공통 구현 - 메서드에 선언된 {@link PageCount} 전략으로 Page 전체 건수를 구한다
+ */
+public class ExtendedJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> {
+
+    private PageCounter pageCounter;
+    private Class<?> repositoryInterface;
+
+    public ExtendedJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+    }
+
+    void setPageCounter(PageCounter pageCounter, Class<?> repositoryInterface) {
+        this.pageCounter = pageCounter;
+        this.repositoryInterface = repositoryInterface;
+    }
+
+    @Override
+    protected <S extends T> Page<S> readPage(TypedQuery<S> query, Class<S> domainClass, Pageable pageable,
+                                             @Nullable Specification<S> spec) {
+
+        Method method = currentMethod();
+        PageCount settings = method == null ? null : AnnotatedElementUtils.findMergedAnnotation(method, PageCount.class);
+        if (pageCounter == null || settings == null) {
+            return super.readPage(query, domainClass, pageable, spec);
+        }
+
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        // Specification 조건 값은 외부에서 알 수 없으므로 조건이 없을 때만 캐시 키를 만든다
+        String queryKey = spec == null ? method.toGenericString() : null;
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable,
+                () -> pageCounter.count(settings, domainClass, queryKey, spec != null,
+                        () -> executeCountQuery(getCountQuery(spec, domainClass))));
+    }
+
+    @Nullable
+    private Method currentMethod() {
+        CrudMethodMetadata metadata = getRepositoryMethodMetadata();
+        if (metadata == null || repositoryInterface == null) {
+            return null;
+        }
+
+        // 상위 인터페이스 메서드가 넘어와도 리포지토리에 재선언된 메서드의 애너테이션을 찾는다
+        Method method = metadata.getMethod();
+        Method declared = ReflectionUtils.findMethod(repositoryInterface, method.getName(), method.getParameterTypes());
+        return declared == null ? method : declared;
+    }
+
+    private static long executeCountQuery(TypedQuery<Long> query) {
+        long total = 0L;
+        for (Long element : query.getResultList()) {
+            total += element == null ? 0 : element;
+        }
+        return total;
+    }
+}
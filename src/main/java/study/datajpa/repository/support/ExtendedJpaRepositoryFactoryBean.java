@@ -0,0 +1,150 @@
+package study.datajpa.repository.support;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.data.jpa.repository.query.JpaQueryMethodFactory;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.querydsl.EntityPathResolver;
+import org.springframework.data.querydsl.SimpleEntityPathResolver;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+import org.springframework.data.repository.query.QueryLookupStrategy;
+import org.springframework.data.repository.query.QueryMethodEvaluationContextProvider;
+import org.springframework.lang.Nullable;
+import study.datajpa.querycount.QueryCountInterceptor;
+import study.datajpa.querycount.QueryCountReporter;
+
+import javax.persistence.EntityManager;
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * {@link ExtendedJpaRepository}에 스프링 빈을 주입하고, 리포지토리 메소드별 쿼리 수 측정을 붙이는 팩토리 빈
+ * @Modifying 메서드는 실행 후 Page 건수 캐시를 무효화한다 ({@link PageCountEvictionInterceptor})
+ * 인터페이스 프로젝션은 {@link GeneratedProjectionFactory}로 만든다
+ * 동적 프로젝션 파생 쿼리는 @Value 연결식을 select 절에서 계산한다 ({@link ComputedProjectionQuery})
+ */
+public class ExtendedJpaRepositoryFactoryBean<T extends Repository<S, ID>, S, ID>
+        extends JpaRepositoryFactoryBean<T, S, ID> {
+
+    private PageCounter pageCounter;
+    private QueryCountReporter queryCountReporter;
+
+    // 팩토리를 직접 만들기 때문에 상위 클래스에 주입되는 설정을 같이 보관한다
+    private EntityPathResolver entityPathResolver = SimpleEntityPathResolver.INSTANCE;
+    private EscapeCharacter escapeCharacter = EscapeCharacter.DEFAULT;
+    private JpaQueryMethodFactory queryMethodFactory;
+
+    public ExtendedJpaRepositoryFactoryBean(Class<? extends T> repositoryInterface) {
+        super(repositoryInterface);
+    }
+
+    @Override
+    @Autowired
+    public void setEntityPathResolver(ObjectProvider<EntityPathResolver> resolver) {
+        super.setEntityPathResolver(resolver);
+        this.entityPathResolver = resolver.getIfAvailable(() -> SimpleEntityPathResolver.INSTANCE);
+    }
+
+    @Override
+    public void setEscapeCharacter(char escapeCharacter) {
+        super.setEscapeCharacter(escapeCharacter);
+        this.escapeCharacter = EscapeCharacter.of(escapeCharacter);
+    }
+
+    @Override
+    @Autowired
+    public void setQueryMethodFactory(@Nullable JpaQueryMethodFactory factory) {
+        super.setQueryMethodFactory(factory);
+        this.queryMethodFactory = factory;
+    }
+
+    @Autowired
+    public void setPageCounter(PageCounter pageCounter) {
+        this.pageCounter = pageCounter;
+    }
+
+    @Autowired
+    public void setQueryCountReporter(QueryCountReporter queryCountReporter) {
+        this.queryCountReporter = queryCountReporter;
+    }
+
+    @Override
+    protected RepositoryFactorySupport createRepositoryFactory(EntityManager entityManager) {
+        ExtendedJpaRepositoryFactory factory = new ExtendedJpaRepositoryFactory(entityManager);
+        factory.setEntityPathResolver(entityPathResolver);
+        factory.setEscapeCharacter(escapeCharacter);
+        if (queryMethodFactory != null) {
+            factory.setQueryMethodFactory(queryMethodFactory);
+        }
+
+        factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+            checkPageCountMethods(repositoryInformation);
+            proxyFactory.addAdvice(0,
+                    new QueryCountInterceptor(repositoryInformation.getRepositoryInterface(), queryCountReporter));
+            proxyFactory.addAdvice(new PageCountEvictionInterceptor(repositoryInformation.getDomainType(), pageCounter));
+
+            Object target = getTarget(proxyFactory);
+            if (target instanceof ExtendedJpaRepository) {
+                ((ExtendedJpaRepository<?, ?>) target)
+                        .setPageCounter(pageCounter, repositoryInformation.getRepositoryInterface());
+            }
+        });
+        return factory;
+    }
+
+    /**
+     * @PageCount 는 기본 구현의 readPage 를 타는 메서드에만 적용된다 - 쿼리 메서드에 붙이면 조용히 무시되지 않도록 기동 시 실패
+     */
+    private static void checkPageCountMethods(RepositoryInformation repositoryInformation) {
+        for (Method method : repositoryInformation.getRepositoryInterface().getMethods()) {
+            if (AnnotatedElementUtils.hasAnnotation(method, PageCount.class)
+                    && !repositoryInformation.isBaseClassMethod(method)) {
+                throw new IllegalStateException("@PageCount is only supported on findAll(..., Pageable) overrides: "
+                        + method.toGenericString());
+            }
+        }
+    }
+
+    private static Object getTarget(ProxyFactory proxyFactory) {
+        try {
+            return proxyFactory.getTargetSource().getTarget();
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot resolve repository target", e);
+        }
+    }
+
+    private static class ExtendedJpaRepositoryFactory extends JpaRepositoryFactory {
+
+        private final EntityManager entityManager;
+
+        ExtendedJpaRepositoryFactory(EntityManager entityManager) {
+            super(entityManager);
+            this.entityManager = entityManager;
+        }
+
+        @Override
+        protected Optional<QueryLookupStrategy> getQueryLookupStrategy(@Nullable QueryLookupStrategy.Key key,
+                QueryMethodEvaluationContextProvider evaluationContextProvider) {
+            return super.getQueryLookupStrategy(key, evaluationContextProvider)
+                    .<QueryLookupStrategy>map(strategy -> (method, metadata, factory, namedQueries) ->
+                            ComputedProjectionQuery.wrap(strategy.resolveQuery(method, metadata, factory, namedQueries),
+                                    metadata, factory, entityManager));
+        }
+
+        @Override
+        protected ProjectionFactory getProjectionFactory(ClassLoader classLoader, BeanFactory beanFactory) {
+            GeneratedProjectionFactory factory = new GeneratedProjectionFactory();
+            factory.setBeanClassLoader(classLoader);
+            factory.setBeanFactory(beanFactory);
+            return factory;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package study.datajpa.repository.support;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.FieldManifestation;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.MethodCall;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
+
+/**
+ * 튜플(Map) 결과로 만드는 인터페이스 프로젝션을 JDK 프록시 대신 생성한 클래스로 만든다
+ * - 게터마다 final 필드를 가진 record 형태 클래스를 처음 사용할 때 만들어 캐시
+ * - 중첩 프로젝션, 컬렉션, primitive, Optional, @Value, default 메서드가 있거나 원본이 엔티티면 기존 프록시 사용
+ *   (Optional 게터는 프록시가 null 을 Optional.empty() 로 감싸 준다)
+ * - @Value 값을 select 절에서 계산한 튜플은 {@link #computedInstantiator}로 만든다 ({@link ComputedProjectionQuery})
+ */
+public class GeneratedProjectionFactory extends SpelAwareProxyProjectionFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneratedProjectionFactory.class);
+
+    private static final Map<Class<?>, Optional<ProjectionInstantiator>> INSTANTIATORS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Optional<ProjectionInstantiator>> COMPUTED_INSTANTIATORS = new ConcurrentHashMap<>();
+
+    private final ConversionService conversionService = DefaultConversionService.getSharedInstance();
+
+    @Override
+    public <T> T createProjection(Class<T> projectionType, Object source) {
+        if (source instanceof Map && projectionType.isInterface()) {
+            Optional<ProjectionInstantiator> instantiator =
+                    INSTANTIATORS.computeIfAbsent(projectionType, type -> generate(type, false));
+            if (instantiator.isPresent()) {
+                return projectionType.cast(instantiator.get().newInstance((Map<?, ?>) source, conversionService));
+            }
+        }
+        return super.createProjection(projectionType, source);
+    }
+
+    /**
+     * @Value 게터도 튜플의 같은 이름 값을 그대로 돌려주는 프로젝션 생성기 - 생성할 수 없는 모양이면 null
+     */
+    @Nullable
+    <T> Function<Map<?, ?>, T> computedInstantiator(Class<T> projectionType) {
+        return COMPUTED_INSTANTIATORS.computeIfAbsent(projectionType, type -> generate(type, true))
+                .<Function<Map<?, ?>, T>>map(instantiator ->
+                        row -> projectionType.cast(instantiator.newInstance(row, conversionService)))
+                .orElse(null);
+    }
+
+    private static Optional<ProjectionInstantiator> generate(Class<?> projectionType, boolean computed) {
+        List<Method> accessors = accessors(projectionType, computed);
+        if (accessors == null) {
+            return Optional.empty();
+        }
+
+        String[] properties = new String[accessors.size()];
+        Class<?>[] types = new Class<?>[accessors.size()];
+        DynamicType.Builder<Object> builder = new ByteBuddy()
+                .subclass(Object.class, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                .name(projectionType.getName() + (computed ? "$Computed" : "$Generated"))
+                .implement(projectionType);
+        Implementation.Composable constructor = MethodCall.invoke(objectConstructor());
+        for (int i = 0; i < accessors.size(); i++) {
+            Method accessor = accessors.get(i);
+            properties[i] = StringUtils.uncapitalize(accessor.getName().substring(3));
+            types[i] = accessor.getReturnType();
+            builder = builder.defineField(properties[i], types[i], Visibility.PRIVATE, FieldManifestation.FINAL)
+                    .method(named(accessor.getName()).and(takesArguments(0)))
+                    .intercept(FieldAccessor.ofField(properties[i]));
+            constructor = constructor.andThen(FieldAccessor.ofField(properties[i]).setsArgumentAt(i));
+        }
+
+        try {
+            Class<?> generated = builder
+                    .defineConstructor(Visibility.PUBLIC).withParameters(types).intercept(constructor)
+                    .withHashCodeEquals()
+                    .withToString()
+                    .make()
+                    .load(projectionType.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                    .getLoaded();
+
+            MethodHandle handle = MethodHandles.publicLookup()
+                    .findConstructor(generated, MethodType.methodType(void.class, types))
+                    .asSpreader(Object[].class, types.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            return Optional.of(new ProjectionInstantiator(properties, types, handle));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("cannot generate projection class for {}, using proxy", projectionType.getName(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 생성 가능한 평평한 닫힌 프로젝션이면 게터 목록, 아니면 null - computed 이면 @Value 게터도 포함한다
+     */
+    private static List<Method> accessors(Class<?> projectionType, boolean computed) {
+        if (!Modifier.isPublic(projectionType.getModifiers())) {
+            return null;
+        }
+
+        List<Method> accessors = new ArrayList<>();
+        for (Method method : projectionType.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            Class<?> returnType = method.getReturnType();
+            boolean flatGetter = !method.isDefault()
+                    && method.getParameterCount() == 0
+                    && method.getName().startsWith("get") && method.getName().length() > 3
+                    && !returnType.isPrimitive() && !returnType.isInterface() && !returnType.isArray()
+                    && returnType != Optional.class
+                    && (computed || !method.isAnnotationPresent(Value.class));
+            if (!flatGetter) {
+                return null;
+            }
+            accessors.add(method);
+        }
+        // 생성자 파라미터 순서가 매번 같도록
+        accessors.sort(Comparator.comparing(Method::getName));
+        return accessors.isEmpty() ? null : accessors;
+    }
+
+    private static Constructor<Object> objectConstructor() {
+        try {
+            return Object.class.getConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class ProjectionInstantiator {
+
+        private final String[] properties;
+        private final Class<?>[] types;
+        private final MethodHandle constructor;
+
+        private ProjectionInstantiator(String[] properties, Class<?>[] types, MethodHandle constructor) {
+            this.properties = properties;
+            this.types = types;
+            this.constructor = constructor;
+        }
+
+        Object newInstance(Map<?, ?> source, ConversionService conversionService) {
+            Object[] values = new Object[properties.length];
+            for (int i = 0; i < properties.length; i++) {
+                Object value = source.get(properties[i]);
+                values[i] = value == null || types[i].isInstance(value)
+                        ? value : conversionService.convert(value, types[i]);
+            }
+            try {
+                return (Object) constructor.invokeExact(values);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot create projection " + constructor.type(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package study.datajpa.repository.support;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * IN (:values) 조회를 chunkSize 개씩 나눠 실행하고 결과를 이어 붙인다
+ * - 중복 값은 제거, 한 쿼리의 파라미터 수는 chunkSize 이하
+ * - in_clause_parameter_padding 과 함께 쓰면 IN 절 길이가 2의 거듭제곱으로 맞춰지므로 chunkSize 도 2의 거듭제곱으로
+ *   (chunkSize 512 -> SQL/플랜 모양은 1, 2, 4 ... 512 의 10가지)
+ * - 청크 사이에 결과가 겹치지 않는 조회(IN 대상 컬럼 기준)에만 사용한다
+ */
+@Component
+public class InListQueryExecutor {
+
+    private final int chunkSize;
+    private final TransactionTemplate chunkTransaction;
+    private final ExecutorService executor;
+
+    public InListQueryExecutor(PlatformTransactionManager transactionManager,
+                               @Value("${app.in-list.chunk-size:512}") int chunkSize,
+                               @Value("${app.in-list.parallelism:4}") int parallelism,
+                               @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        if (chunkSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("chunkSize and parallelism must be positive");
+        }
+        // 청크 스레드가 풀을 다 가져가면 커넥션을 잡고 기다리는 다른 요청과 서로 막힌다
+        if (parallelism >= connectionPoolSize) {
+            throw new IllegalArgumentException("parallelism (" + parallelism
+                    + ") must be smaller than the connection pool size (" + connectionPoolSize + ")");
+        }
+        this.chunkSize = chunkSize;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkTransaction.setReadOnly(true);
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "in-list-query-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 호출 스레드에서 청크를 차례로 실행 - 호출 측 트랜잭션/영속성 컨텍스트를 그대로 쓴다
+     */
+    public <V, T> List<T> query(Collection<? extends V> values, Function<List<V>, List<T>> chunkQuery) {
+        List<List<V>> chunks = chunks(values);
+        if (chunks.size() == 1) {
+            return chunkQuery.apply(chunks.get(0));
+        }
+
+        List<T> result = new ArrayList<>();
+        for (List<V> chunk : chunks) {
+            result.addAll(chunkQuery.apply(chunk));
+        }
+        return result;
+    }
+
+    /**
+     * 청크마다 별도 스레드, 별도 읽기 전용 트랜잭션으로 동시에 실행 (청크 순서대로 합친다)
+     * - 반환된 엔티티는 호출 측 영속성 컨텍스트에 속하지 않는 준영속 상태이므로 필요한 연관은 fetch join 할 것
+     * - 청크 스레드는 모든 호출을 합쳐 parallelism 개, 커넥션 풀 크기보다 작다
+     * - 호출 측 트랜잭션이 있으면 그 커넥션을 잡은 채 풀을 기다리지 않도록 {@link #query}처럼 호출 스레드에서 차례로 실행한다
+     */
+    public <V, T> List<T> queryInParallel(Collection<? extends V> values, Function<List<V>, List<T>> chunkQuery) {
+        List<List<V>> chunks = chunks(values);
+        if (chunks.size() <= 1 || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return query(values, chunkQuery);
+        }
+
+        List<Callable<List<T>>> tasks = new ArrayList<>(chunks.size());
+        for (List<V> chunk : chunks) {
+            tasks.add(() -> chunkTransaction.execute(status -> chunkQuery.apply(chunk)));
+        }
+
+        List<T> result = new ArrayList<>();
+        try {
+            for (Future<List<T>> future : executor.invokeAll(tasks)) {
+                result.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for in-list chunks", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return result;
+    }
+
+    private <V> List<List<V>> chunks(Collection<? extends V> values) {
+        List<V> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        // 빈 IN () 은 쿼리를 실행하지 않는다
+        if (distinct.isEmpty()) {
+            return List.of();
+        }
+        if (distinct.size() <= chunkSize) {
+            return List.of(distinct);
+        }
+
+        List<List<V>> chunks = new ArrayList<>((distinct.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            chunks.add(distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+        }
+        return chunks;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
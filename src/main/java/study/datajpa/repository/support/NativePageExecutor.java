@@ -0,0 +1,87 @@
+package study.datajpa.repository.support;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 네이티브 SQL 페이징을 JdbcTemplate 으로 직접 실행한다
+ * - 엔티티/Tuple/프로젝션 프록시 없이 RowMapper 가 컬럼 인덱스로 바로 객체를 만든다 (매퍼는 상수로 한 번만 만들어 둘 것)
+ * - JPA 트랜잭션의 커넥션을 같이 쓰고, 실행 전에 영속성 컨텍스트를 flush 한다 (Hibernate 네이티브 쿼리의 auto flush 와 같게)
+ * - 정렬은 sortColumns 에 있는 속성만 허용 (SQL 에 그대로 들어간다)
+ */
+@Component
+@RequiredArgsConstructor
+public class NativePageExecutor {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager em;
+
+    /**
+     * @param sql       order by / limit 이 없는 select 문
+     * @param countSql  같은 조건의 count 문
+     * @param fetchSize 드라이버가 한 번에 가져올 행 수, 0 이면 드라이버 기본값
+     */
+    public <T> Page<T> page(String sql, String countSql, Map<String, String> sortColumns, RowMapper<T> mapper,
+                            Pageable pageable, int fetchSize, Object... args) {
+        flushIfNeeded();
+
+        StringBuilder pageSql = new StringBuilder(sql).append(orderBy(pageable.getSort(), sortColumns));
+        Object[] pageArgs = args;
+        if (pageable.isPaged()) {
+            pageSql.append(" limit ? offset ?");
+            pageArgs = Arrays.copyOf(args, args.length + 2);
+            pageArgs[args.length] = pageable.getPageSize();
+            pageArgs[args.length + 1] = pageable.getOffset();
+        }
+
+        ArgumentPreparedStatementSetter setter = new ArgumentPreparedStatementSetter(pageArgs);
+        int expectedRows = pageable.isPaged() ? pageable.getPageSize() : 0;
+        List<T> content = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(pageSql.toString());
+            if (fetchSize > 0) {
+                ps.setFetchSize(fetchSize);
+            }
+            return ps;
+        }, setter, new RowMapperResultSetExtractor<>(mapper, expectedRows));
+
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> jdbcTemplate.queryForObject(countSql, Long.class, args));
+    }
+
+    private static String orderBy(Sort sort, Map<String, String> sortColumns) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+
+        StringBuilder orderBy = new StringBuilder(" order by ");
+        for (Sort.Order order : sort) {
+            String column = sortColumns.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+            orderBy.append(column).append(order.isAscending() ? " asc" : " desc").append(", ");
+        }
+        return orderBy.substring(0, orderBy.length() - 2);
+    }
+
+    private void flushIfNeeded() {
+        if (TransactionSynchronizationManager.isActualTransactionActive() && em.isJoinedToTransaction()) {
+            em.flush();
+        }
+    }
+}
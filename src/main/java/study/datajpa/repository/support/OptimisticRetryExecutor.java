@@ -0,0 +1,81 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Version 충돌 시 트랜잭션을 처음부터 다시 실행한다
+ * - 시도마다 새 트랜잭션이므로 엔티티는 callback 안에서 다시 조회해야 한다
+ * - 대기 시간은 min(maxBackoff, baseBackoff * 2^n) 범위의 랜덤 (full jitter)
+ * - 이미 시작된 트랜잭션 안에서 부르면 다시 실행해도 같은 스냅샷이므로 허용하지 않는다
+ */
+@Component
+public class OptimisticRetryExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetryExecutor.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+    private final Counter retries;
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                   @Value("${app.optimistic-retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${app.optimistic-retry.base-backoff:10ms}") Duration baseBackoff,
+                                   @Value("${app.optimistic-retry.max-backoff:200ms}") Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = baseBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.retries = meterRegistry.counter("repository.optimistic.retries");
+    }
+
+    public <T> T execute(TransactionCallback<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Optimistic retry must start outside of a transaction");
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(action);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                retries.increment();
+                log.debug("optimistic lock conflict, retrying ({}/{})", attempt, maxAttempts, e);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, baseBackoffNanos << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package study.datajpa.repository.support;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Page 조회 시 전체 건수를 구하는 방식 지정
+ * <ul>
+ *     <li>EXACT - 매번 count 쿼리 실행</li>
+ *     <li>CACHED - 쿼리 단위로 ttl 동안 캐시, 엔티티 변경 시 무효화</li>
+ *     <li>ESTIMATED - 조건 없는 count는 DB 통계의 추정치 사용, 추정치가 없으면 CACHED로 동작</li>
+ * </ul>
+ * Specification 조건이 있는 count는 조건 값으로 캐시 키를 만들 수 없으므로 CACHED/ESTIMATED 라도 매번 실행한다
+ * 적용 범위는 기본 구현의 findAll(Pageable), findAll(Specification, Pageable) 재선언 뿐이다
+ * - @Query/파생 쿼리 페이징(findPageAll, findByNativeProjection 등)은 Spring Data 가 count 를 직접 실행하므로
+ *   붙이면 기동 시 오류, 캐시가 필요하면 커스텀 구현에서 {@link PageCounter}를 직접 쓴다 (findMemberDtoPage 참고)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PageCount {
+
+    Mode value() default Mode.EXACT;
+
+    long ttlSeconds() default 60;
+
+    enum Mode {
+        EXACT, CACHED, ESTIMATED
+    }
+}
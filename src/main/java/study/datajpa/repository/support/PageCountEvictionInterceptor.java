@@ -0,0 +1,30 @@
+package study.datajpa.repository.support;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Modifying;
+
+/**
+ * @Modifying 리포지토리 메서드(bulk update/delete)가 성공하면 도메인 타입의 Page 건수 캐시를 커밋 후에 무효화한다
+ * - bulk 연산은 엔티티 리스너를 거치지 않으므로 {@link PageCountEvictionListener}가 알 수 없다
+ */
+public class PageCountEvictionInterceptor implements MethodInterceptor {
+
+    private final Class<?> domainType;
+    private final PageCounter pageCounter;
+
+    public PageCountEvictionInterceptor(Class<?> domainType, PageCounter pageCounter) {
+        this.domainType = domainType;
+        this.pageCounter = pageCounter;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (AnnotatedElementUtils.hasAnnotation(invocation.getMethod(), Modifying.class)) {
+            pageCounter.evictAfterCommit(domainType);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.repository.support;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * 엔티티 변경 시 캐시된 Page 전체 건수를 커밋 후에 무효화 - 롤백된 변경은 무효화하지 않는다
+ * - PageCounter는 EntityManagerFactory에 의존하므로 지연 조회한다
+ */
+public class PageCountEvictionListener {
+
+    private final ObjectProvider<PageCounter> pageCounter;
+
+    public PageCountEvictionListener(ObjectProvider<PageCounter> pageCounter) {
+        this.pageCounter = pageCounter;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(Object entity) {
+        pageCounter.ifAvailable(counter -> counter.evictAfterCommit(entity.getClass()));
+    }
+}
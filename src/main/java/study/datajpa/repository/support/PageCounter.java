@@ -0,0 +1,133 @@
+package study.datajpa.repository.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link PageCount} 전략에 따라 Page 전체 건수를 구한다
+ * - 쓰기 트랜잭션 안에서 구한 건수는 롤백될 수 있으므로 캐시에 넣지 않는다 (트랜잭션 밖 또는 읽기 전용일 때만 저장)
+ * - 변경은 커밋 후에 무효화한다 ({@link #evictAfterCommit}) - flush 시점에 비우면 커밋 전의 건수가 다시 캐시될 수 있다
+ * - 엔티티 변경과 @Modifying 리포지토리 메서드는 자동으로 무효화, 그 외 JDBC/네이티브 쓰기는 직접 호출할 것
+ */
+@Component
+@RequiredArgsConstructor
+public class PageCounter {
+
+    private final EntityManagerFactory emf;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.page-count.estimate-query}")
+    private String estimateQuery;
+
+    private final Map<String, CachedCount> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param queryKey 쿼리와 조건 값을 구분하는 키, null이면 캐시하지 않는다
+     * @param filtered 조건이 있는 count인지 여부 - 추정치는 조건 없는 count에만 사용
+     */
+    public long count(PageCount settings, Class<?> domainClass, @Nullable String queryKey,
+                      boolean filtered, LongSupplier exactCount) {
+        return count(settings.value(), settings.ttlSeconds(), domainClass, queryKey, filtered, exactCount);
+    }
+
+    /**
+     * 애너테이션 없이 전략을 직접 지정 - 커스텀 리포지토리 구현(fragment)처럼 {@link PageCount}가 처리되지 않는 곳에서 사용
+     */
+    public long count(PageCount.Mode mode, long ttlSeconds, Class<?> domainClass, @Nullable String queryKey,
+                      boolean filtered, LongSupplier exactCount) {
+
+        if (mode == PageCount.Mode.ESTIMATED && !filtered) {
+            Long estimate = estimate(domainClass);
+            if (estimate != null) {
+                record("estimated");
+                return estimate;
+            }
+        }
+
+        if (mode == PageCount.Mode.EXACT || queryKey == null) {
+            record("executed");
+            return exactCount.getAsLong();
+        }
+
+        String key = domainClass.getName() + "|" + queryKey;
+        long now = System.nanoTime();
+        CachedCount cached = cache.get(key);
+        if (cached != null && cached.expiresAt - now > 0) {
+            record("cached");
+            return cached.total;
+        }
+
+        long total = exactCount.getAsLong();
+        record("executed");
+        if (cacheable()) {
+            cache.put(key, new CachedCount(domainClass, total, now + TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        return total;
+    }
+
+    public void evict(Class<?> domainClass) {
+        cache.values().removeIf(cached -> cached.domainClass == domainClass);
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤 무효화, 트랜잭션 밖이면 바로 무효화
+     */
+    public void evictAfterCommit(Class<?> domainClass) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(domainClass);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(domainClass);
+            }
+        });
+    }
+
+    private static boolean cacheable() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    @Nullable
+    private Long estimate(Class<?> domainClass) {
+        EntityPersister persister = emf.unwrap(SessionFactoryImplementor.class)
+                .getMetamodel().entityPersister(domainClass);
+        if (!(persister instanceof AbstractEntityPersister)) {
+            return null;
+        }
+
+        String tableName = ((AbstractEntityPersister) persister).getTableName();
+        List<Long> estimates = jdbcTemplate.queryForList(estimateQuery, Long.class, tableName);
+        return estimates.isEmpty() ? null : estimates.get(0);
+    }
+
+    private void record(String outcome) {
+        meterRegistry.counter("repository.page.count", "outcome", outcome).increment();
+    }
+
+    @RequiredArgsConstructor
+    private static class CachedCount {
+        private final Class<?> domainClass;
+        private final long total;
+        private final long expiresAt;
+    }
+}
@@ -0,0 +1,49 @@
+package study.datajpa.search;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Member;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Member 변경을 커밋 후에 {@link UsernamePrefixIndex}에 반영한다 - 롤백된 변경은 반영하지 않는다
+ */
+public class UsernameIndexListener {
+
+    private final ObjectProvider<UsernamePrefixIndex> index;
+
+    public UsernameIndexListener(ObjectProvider<UsernamePrefixIndex> index) {
+        this.index = index;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Member member) {
+        Long id = member.getId();
+        String username = member.getUsername();
+        index.ifAvailable(i -> afterCommit(() -> i.put(id, username)));
+    }
+
+    @PostRemove
+    public void onRemove(Member member) {
+        Long id = member.getId();
+        index.ifAvailable(i -> afterCommit(() -> i.remove(id)));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,115 @@
+package study.datajpa.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import study.datajpa.dto.MemberSuggestionDto;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * username 접두어 검색용 메모리 인덱스 (대소문자 구분)
+ * - 기동 후 member 테이블을 한 번 읽어서 채우고, 이후에는 {@link UsernameIndexListener}가 커밋된 변경을 반영한다
+ * - JPQL/네이티브 bulk 연산은 엔티티 리스너를 거치지 않으므로 반영되지 않는다 - 필요하면 {@link #reload()}
+ * - reload 는 새 인덱스를 만들어 한 번에 바꾼다, 그동안 들어온 변경은 새 인덱스에 다시 적용한 뒤 바꾼다
+ */
+@Component
+@ConditionalOnProperty(name = "app.username-index.enabled", havingValue = "true")
+public class UsernamePrefixIndex {
+
+    private static final char ID_SEPARATOR = '\u0000';
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Object reloadLock = new Object();
+    private volatile Snapshot snapshot = new Snapshot();
+    private volatile boolean ready;
+
+    /**
+     * reload 중에 들어온 변경 (id -> username, 삭제는 null) - reload 중이 아니면 null, put/remove 와 함께 this 로 동기화
+     */
+    private Map<Long, String> changesDuringReload;
+
+    public UsernamePrefixIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                changesDuringReload = new LinkedHashMap<>();
+            }
+
+            Snapshot fresh = new Snapshot();
+            try {
+                jdbcTemplate.query("select member_id, username from member",
+                        (RowCallbackHandler) rs -> fresh.put(rs.getLong(1), rs.getString(2)));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changesDuringReload = null;
+                }
+                throw e;
+            }
+
+            // 읽은 행보다 나중에 커밋된 변경일 수 있다 - 다시 적용해서 삭제된 회원이 되살아나지 않도록
+            synchronized (this) {
+                changesDuringReload.forEach(fresh::put);
+                changesDuringReload = null;
+                snapshot = fresh;
+            }
+            ready = true;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<MemberSuggestionDto> search(String prefix, int limit) {
+        return snapshot.entries.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values().stream()
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    synchronized void put(Long id, String username) {
+        snapshot.put(id, username);
+        if (changesDuringReload != null) {
+            changesDuringReload.put(id, username);
+        }
+    }
+
+    synchronized void remove(Long id) {
+        put(id, null);
+    }
+
+    private static final class Snapshot {
+
+        /**
+         * username + \0 + id -> 결과, 같은 username 이 여러 명이어도 키가 겹치지 않는다
+         */
+        private final ConcurrentSkipListMap<String, MemberSuggestionDto> entries = new ConcurrentSkipListMap<>();
+        private final Map<Long, String> keyById = new HashMap<>();
+
+        /**
+         * username 이 null 이면 삭제
+         */
+        void put(Long id, String username) {
+            String previous = username == null ? keyById.remove(id) : keyById.put(id, username + ID_SEPARATOR + id);
+            String key = username == null ? null : username + ID_SEPARATOR + id;
+            if (previous != null && !previous.equals(key)) {
+                entries.remove(previous);
+            }
+            if (key != null) {
+                entries.put(key, new MemberSuggestionDto(id, username));
+            }
+        }
+    }
+}
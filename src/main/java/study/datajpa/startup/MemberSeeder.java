@@ -0,0 +1,66 @@
+package study.datajpa.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 샘플 회원 데이터 생성 - 기동이 끝난(ApplicationReadyEvent) 뒤 한 트랜잭션으로 저장한다
+ * - app.seed.async 이면 별도 스레드에서 저장하므로 그동안 들어온 요청은 데이터가 없을 수 있다
+ */
+@Component
+public class MemberSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberSeeder.class);
+
+    private final MemberRepository memberRepository;
+    private final int members;
+    private final boolean async;
+
+    public MemberSeeder(MemberRepository memberRepository,
+                        @Value("${app.seed.members:10}") int members,
+                        @Value("${app.seed.async:false}") boolean async) {
+        this.memberRepository = memberRepository;
+        this.members = members;
+        this.async = async;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (members <= 0) {
+            return;
+        }
+        if (!async) {
+            seed();
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            try {
+                seed();
+            } catch (RuntimeException e) {
+                log.error("Seeding members failed", e);
+            }
+        }, "member-seeder");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void seed() {
+        long start = System.nanoTime();
+        List<Member> seeds = new ArrayList<>(members);
+        for (int i = 0; i < members; i++) {
+            seeds.add(new Member("member" + i, 10 + i));
+        }
+        memberRepository.saveAll(seeds);
+        log.info("Seeded {} members in {} ms", members, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,84 @@
+package study.datajpa.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * JVM 시작부터 기동 완료, 첫 /members/{id} 응답까지 걸린 시간을 로그와 메트릭(app.startup.*)으로 남긴다
+ * - 프로필과 CDS 아카이브 사용 여부를 함께 출력해서 모드별로 비교한다
+ * - app.startup.exit-when-ready 이면 기동 직후 종료한다 (gradle cdsArchive 학습 실행용)
+ */
+@Component
+public class StartupTimeReporter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeReporter.class);
+    private static final String FIRST_REQUEST_PATTERN = "/members/{id}";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean exitWhenReady;
+    private final AtomicBoolean firstRequestServed = new AtomicBoolean();
+    private volatile String mode = "default";
+
+    public StartupTimeReporter(MeterRegistry meterRegistry,
+                               @Value("${app.startup.exit-when-ready:false}") boolean exitWhenReady) {
+        this.meterRegistry = meterRegistry;
+        this.exitWhenReady = exitWhenReady;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        String[] profiles = event.getApplicationContext().getEnvironment().getActiveProfiles();
+        boolean cds = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"));
+        mode = (profiles.length == 0 ? "default" : String.join(",", profiles)) + (cds ? "+cds" : "");
+
+        long millis = sinceJvmStart();
+        TimeGauge.builder("app.startup.ready", () -> millis, TimeUnit.MILLISECONDS).register(meterRegistry);
+        log.info("Started in {} ms since JVM start (mode={}, profiles={})", millis, mode, Arrays.toString(profiles));
+
+        if (exitWhenReady) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+
+        if (!firstRequestServed.get()
+                && FIRST_REQUEST_PATTERN.equals(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE))
+                && response.getStatus() < 500
+                && firstRequestServed.compareAndSet(false, true)) {
+            long millis = sinceJvmStart();
+            TimeGauge.builder("app.startup.first-request", () -> millis, TimeUnit.MILLISECONDS).register(meterRegistry);
+            log.info("First {} served in {} ms since JVM start (mode={}, status={})",
+                    FIRST_REQUEST_PATTERN, millis, mode, response.getStatus());
+        }
+    }
+
+    private static long sinceJvmStart() {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        return System.currentTimeMillis() - runtime.getStartTime();
+    }
+}
@@ -0,0 +1,117 @@
+package study.datajpa.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnitOfWorkAuditorAwareTest {
+
+    UnitOfWorkAuditorAware auditorAware = new UnitOfWorkAuditorAware();
+
+    @AfterEach
+    void clear() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void sameAuditorWithinUnitOfWork() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        String first = auditorAware.getCurrentAuditor().get();
+        String second = auditorAware.getCurrentAuditor().get();
+        completeUnitOfWork();
+        TransactionSynchronizationManager.initSynchronization();
+        String next = auditorAware.getCurrentAuditor().get();
+
+        // then
+        assertThat(second).isEqualTo(first);
+        assertThat(next).isNotEqualTo(first);
+        assertThat(UUID.fromString(first).version()).isEqualTo(4);
+    }
+
+    @Test
+    public void newAuditorWithoutUnitOfWork() {
+        String first = auditorAware.getCurrentAuditor().get();
+        String second = auditorAware.getCurrentAuditor().get();
+
+        assertThat(second).isNotEqualTo(first);
+    }
+
+    /**
+     * 감사자 생성 비용만 비교 - saveAll 전체 비교는 src/jmh 의 AuditBenchmark
+     */
+    @Test
+    @Tag("benchmark")
+    public void auditorBenchmark() throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int callsPerThread = 200_000;
+
+        long uuid = measure(threads, callsPerThread, () -> UUID.randomUUID().toString());
+        long unitOfWork = measure(threads, callsPerThread, () -> {
+            // 100 엔티티마다 트랜잭션이 바뀌는 상황
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.initSynchronization();
+            }
+            String auditor = auditorAware.getCurrentAuditor().get();
+            if (ThreadLocalCounter.next() % 100 == 0) {
+                completeUnitOfWork();
+            }
+            return auditor;
+        });
+
+        System.out.printf("threads=%d calls=%d UUID.randomUUID=%.1fms unitOfWork=%.1fms%n",
+                threads, threads * callsPerThread, uuid / 1e6, unitOfWork / 1e6);
+    }
+
+    private static long measure(int threads, int callsPerThread, Supplier<String> auditor) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < callsPerThread; i++) {
+                        auditor.get();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void completeUnitOfWork() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static class ThreadLocalCounter {
+        private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+        static int next() {
+            return ++COUNT.get()[0];
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.querycount.QueryCounter;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 메모리 H2 두 개를 primary / replica로 두고 라우팅을 확인한다 - DATABASE() 는 접속한 DB 이름
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.max-lag=1m"})
+class RoutingDataSourceTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ReadWriteRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void forgetRecentWrite() {
+        routingDataSource.forgetRecentWrite();
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        assertThat(database(true)).isEqualToIgnoringCase("replica");
+    }
+
+    @Test
+    void writeTransactionUsesPrimary() {
+        assertThat(database(false)).isEqualToIgnoringCase("primary");
+    }
+
+    @Test
+    void readAfterWriteUsesPrimaryWithinMaxLag() {
+        database(false);
+
+        assertThat(database(true)).isEqualToIgnoringCase("primary");
+
+        routingDataSource.forgetRecentWrite();
+        assertThat(database(true)).isEqualToIgnoringCase("replica");
+    }
+
+    @Test
+    void statementIsCountedOnce() {
+        // p6spy 가 바깥 dataSource 에만 붙어 있으면 라우팅/풀 계층을 거쳐도 한 번만 센다
+        try (QueryCounter counter = QueryCounter.open("routing")) {
+            database(true);
+            database(false);
+
+            assertThat(counter.getCount()).isEqualTo(2);
+        }
+    }
+
+    private String database(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status ->
+                String.valueOf(em.createNativeQuery("select database()").getSingleResult()));
+    }
+}
@@ -0,0 +1,38 @@
+package study.datajpa.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void unsupportedSortIsBadRequest() throws Exception {
+        mockMvc.perform(get("/members").param("sort", "createdDate"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void supportedSortIsOk() throws Exception {
+        mockMvc.perform(get("/members").param("sort", "teamName,asc"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void unsupportedAsyncSortIsBadRequest() throws Exception {
+        mockMvc.perform(get("/members-teams").param("member_sort", "createdDate"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/members-teams").param("team_sort", "createdDate"))
+                .andExpect(status().isBadRequest());
+    }
+}
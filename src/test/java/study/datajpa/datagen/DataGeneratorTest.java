@@ -0,0 +1,67 @@
+package study.datajpa.datagen;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DataGeneratorTest {
+
+    @Autowired
+    DataGenerator dataGenerator;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void generate() {
+        // given
+        DataGeneratorProperties spec = new DataGeneratorProperties();
+        spec.setMembers(5_000);
+        spec.setTeams(50);
+        spec.setThreads(3);
+        spec.setBatchSize(500);
+        spec.setUsernamePrefix("datagen");
+        spec.setAgeDistribution(DataGeneratorProperties.AgeDistribution.NORMAL);
+        spec.setMinAge(20);
+        spec.setMaxAge(60);
+        spec.setTeamSkew(1.0);
+        spec.setNoTeamRatio(0.1);
+
+        // when
+        DataGenerationResult result = dataGenerator.generate(spec);
+        long lastMemberId = result.getFirstMemberId() + result.getMembers() - 1;
+        long lastTeamId = result.getFirstTeamId() + result.getTeams() - 1;
+        try {
+            // then
+            assertThat(jdbcTemplate.queryForObject("select count(*) from member where member_id between ? and ?"
+                    + " and age between 20 and 60 and created_date is not null and created_by = 'datagen'"
+                    + " and version = 0", Long.class, result.getFirstMemberId(), lastMemberId)).isEqualTo(5_000);
+
+            // 쏠림 - 첫 팀이 가장 크다
+            List<Long> teamSizes = jdbcTemplate.queryForList("select count(*) from member where team_id between ? and ?"
+                    + " group by team_id order by team_id", Long.class, result.getFirstTeamId(), lastTeamId);
+            assertThat(teamSizes.get(0)).isGreaterThan(teamSizes.get(teamSizes.size() - 1) * 5);
+            assertThat(jdbcTemplate.queryForObject("select count(*) from member where member_id between ? and ?"
+                    + " and team_id is null", Long.class, result.getFirstMemberId(), lastMemberId)).isBetween(300L, 700L);
+
+            // 이후 저장하는 엔티티 id 는 생성한 범위와 겹치지 않는다 (이미 할당받은 블록 또는 범위 뒤)
+            Member saved = memberRepository.save(new Member("afterDatagen", 10));
+            assertThat(saved.getId() < result.getFirstMemberId() || saved.getId() > lastMemberId).isTrue();
+            memberRepository.delete(saved);
+        } finally {
+            jdbcTemplate.update("delete from member where member_id between ? and ?", result.getFirstMemberId(), lastMemberId);
+            jdbcTemplate.update("delete from team where id between ? and ?", result.getFirstTeamId(), lastTeamId);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package study.datajpa.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 실행 중인 서버에 /members, /members/{id} 를 동시에 호출해서 처리량과 지연 시간 분포를 출력한다
+ * 기본 모드와 virtual-threads 프로필로 각각 띄운 서버에 같은 인자로 실행해서 비교 - gradle loadTest 태스크 참고
+ * <pre>
+ * args: baseUrl concurrency durationSeconds
+ * </pre>
+ */
+public class MemberLoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        List<Long> ids = memberIds(client, baseUrl);
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("no members returned by " + baseUrl + "/members");
+        }
+
+        Map<String, List<Long>> latencies = new ConcurrentHashMap<>();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                List<Long> pageNanos = new ArrayList<>();
+                List<Long> findNanos = new ArrayList<>();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    while (System.nanoTime() < deadline) {
+                        boolean page = random.nextBoolean();
+                        String path = page
+                                ? "/members?page=" + random.nextInt(10)
+                                : "/members/" + ids.get(random.nextInt(ids.size()));
+                        long start = System.nanoTime();
+                        if (send(client, baseUrl + path) == 200) {
+                            (page ? pageNanos : findNanos).add(System.nanoTime() - start);
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    latencies.computeIfAbsent("/members", k -> Collections.synchronizedList(new ArrayList<>()))
+                            .addAll(pageNanos);
+                    latencies.computeIfAbsent("/members/{id}", k -> Collections.synchronizedList(new ArrayList<>()))
+                            .addAll(findNanos);
+                    done.countDown();
+                }
+            }, "load-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+
+        System.out.printf("baseUrl=%s concurrency=%d duration=%ds errors=%d%n",
+                baseUrl, concurrency, duration.getSeconds(), errors.get());
+        latencies.forEach((endpoint, nanos) -> print(endpoint, new ArrayList<>(nanos), duration));
+    }
+
+    private static int send(HttpClient client, String url) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static List<Long> memberIds(HttpClient client, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/members?page=0&size=100")).build();
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+
+        List<Long> ids = new ArrayList<>();
+        Matcher matcher = ID.matcher(body);
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        return ids;
+    }
+
+    private static void print(String endpoint, List<Long> nanos, Duration duration) {
+        if (nanos.isEmpty()) {
+            System.out.printf("%-14s no successful requests%n", endpoint);
+            return;
+        }
+        Collections.sort(nanos);
+        System.out.printf("%-14s requests=%d throughput=%.0f req/s p50=%.2fms p99=%.2fms max=%.2fms%n",
+                endpoint, nanos.size(), nanos.size() / (double) duration.getSeconds(),
+                percentile(nanos, 0.50), percentile(nanos, 0.99), nanos.get(nanos.size() - 1) / 1e6);
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+}
@@ -0,0 +1,98 @@
+package study.datajpa.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 모드별로 애플리케이션을 띄워서 프로세스 시작부터 첫 /members/{id} 응답까지 걸린 시간을 잰다
+ * - 기본, fast-start 프로필, fast-start + AppCDS 아카이브(있을 때만) - gradle startupReport 태스크 참고
+ * - 응답 코드가 5xx 가 아니면 응답한 것으로 본다 (없는 회원은 404 이므로 비동기 시딩을 기다리지 않는다)
+ * <pre>
+ * args: javaExecutable classpath cdsArchive port runs
+ * </pre>
+ */
+public class StartupTimeReport {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        String java = args[0];
+        String classpath = args[1];
+        File cdsArchive = new File(args[2]);
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 8080;
+        int runs = args.length > 4 ? Integer.parseInt(args[4]) : 3;
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("default", List.of());
+        modes.put("fast-start", List.of("-Dspring.profiles.active=fast-start"));
+        if (cdsArchive.isFile()) {
+            modes.put("fast-start+cds", List.of("-Dspring.profiles.active=fast-start",
+                    "-XX:SharedArchiveFile=" + cdsArchive.getAbsolutePath()));
+        } else {
+            System.out.println("no CDS archive at " + cdsArchive + " - run gradle cdsArchive first to include it");
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+            List<Long> millis = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                List<String> command = new ArrayList<>();
+                command.add(java);
+                command.addAll(mode.getValue());
+                command.add("-Dserver.port=" + port);
+                command.add("-cp");
+                command.add(classpath);
+                command.add("study.datajpa.DataJpaApplication");
+                millis.add(timeToFirstResponse(client, command, port));
+            }
+            System.out.printf("%-16s first /members/{id} response: %s ms (min %d)%n",
+                    mode.getKey(), millis, millis.stream().mapToLong(Long::longValue).min().orElse(-1));
+        }
+    }
+
+    private static long timeToFirstResponse(HttpClient client, List<String> command, int port) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/members/1"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("application exited with " + process.exitValue());
+                }
+                try {
+                    int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status < 500) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // 아직 포트가 열리지 않음
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("no response within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package study.datajpa.querycount;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+public class QueryCounterTest {
+
+    private static final List<String> NAMES = List.of("qc1", "qc2", "qc3");
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void repeatedSelectIsFlagged() {
+        // given
+        saveMembersWithOwnTeam();
+
+        // when - 회원마다 같은 select 를 반복
+        try (QueryCounter counter = QueryCounter.open("repeated")) {
+            NAMES.forEach(name -> memberRepository.findListByUsername(name));
+
+            // then
+            assertThat(counter.getCount()).isEqualTo(3);
+            assertThat(counter.getRepeatedSelects(3)).hasSize(1);
+            assertThatThrownBy(() -> counter.assertAtMost(2))
+                    .isInstanceOf(QueryBudgetExceededException.class);
+        }
+
+        assertThat(meterRegistry.find("repository.queries")
+                .tags("repository", "MemberRepository", "method", "findListByUsername")
+                .summary()).isNotNull();
+    }
+
+    @Test
+    public void lazyLoadingIsBatched() {
+        // given
+        saveMembersWithOwnTeam();
+
+        // when
+        try (QueryCounter counter = QueryCounter.open("lazy")) {
+            List<Member> members = memberRepository.findByNames(NAMES);
+            members.forEach(m -> m.getTeam().getName());
+
+            // then - 회원 1번 + 팀 3개를 IN 으로 1번 (default_batch_fetch_size)
+            assertThat(counter.getCount()).isEqualTo(2);
+            assertThat(counter.getRepeatedSelects(3)).isEmpty();
+        }
+    }
+
+    @Test
+    public void fetchJoinIsSingleSelect() {
+        // given
+        saveMembersWithOwnTeam();
+
+        // when
+        try (QueryCounter counter = QueryCounter.open("fetchJoin")) {
+            List<Member> members = em.createQuery(
+                            "select m from Member m join fetch m.team where m.username in :names", Member.class)
+                    .setParameter("names", NAMES)
+                    .getResultList();
+            members.forEach(m -> m.getTeam().getName());
+
+            // then
+            counter.assertAtMost(1);
+            assertThat(counter.getRepeatedSelects(3)).isEmpty();
+        }
+        assertThat(QueryCounter.current()).isNull();
+    }
+
+    private void saveMembersWithOwnTeam() {
+        for (String name : NAMES) {
+            Team team = new Team("team-" + name);
+            em.persist(team);
+            em.persist(new Member(name, 10, team));
+        }
+        em.flush();
+        em.clear();
+    }
+}
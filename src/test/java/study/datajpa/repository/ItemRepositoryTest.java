@@ -1,5 +1,7 @@
 package study.datajpa.repository;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -7,6 +9,12 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.annotation.Rollback;
 import study.datajpa.entity.Item;
 
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
 
 @DataJpaTest
@@ -17,6 +25,9 @@ class ItemRepositoryTest {
     @Autowired
     ItemRepository itemRepository;
 
+    @Autowired
+    EntityManager em;
+
     @Test
     public void save() {
 
@@ -25,4 +36,27 @@ class ItemRepositoryTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    @Rollback
+    public void insertAll() {
+        // given
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<Item> items = IntStream.range(0, 10_000)
+                .mapToObj(i -> new Item("item" + i))
+                .collect(Collectors.toList());
+
+        // when
+        long inserted = itemRepository.insertAll(items);
+
+        // then - merge select 없이 100건 단위 배치 insert 만 실행
+        assertThat(inserted).isEqualTo(10_000);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(10_000);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10_000 / 100);
+        assertThat(items).noneMatch(Item::isNew);
+    }
+
+}
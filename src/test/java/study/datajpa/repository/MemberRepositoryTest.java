@@ -1,23 +1,60 @@
 package study.datajpa.repository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.*;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.datagen.DataGenerationResult;
+import study.datajpa.datagen.DataGenerator;
+import study.datajpa.datagen.DataGeneratorProperties;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.dto.TeamDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.querycount.QueryCounter;
+import study.datajpa.repository.support.BulkOperationResult;
+import study.datajpa.repository.support.OptimisticRetryExecutor;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @Transactional
 @SpringBootTest
@@ -33,6 +70,24 @@ class MemberRepositoryTest {
     @Autowired
     TeamRepository teamRepository;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    OptimisticRetryExecutor retryExecutor;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    DataGenerator dataGenerator;
+
     @Test
     void testMember() {
         System.out.println(repository.getClass());
@@ -172,6 +227,44 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void findByNamesChunked() {
+        // given - 청크 크기(512)보다 긴 목록, 병렬 조회는 별도 트랜잭션이므로 커밋된 데이터로 확인
+        String prefix = "inChunk" + System.nanoTime() + "_";
+        Team team = teamRepository.save(new Team(prefix));
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 1100; i++) {
+            members.add(new Member(prefix + i, i, team));
+        }
+        repository.saveAllBatched(members, 500);
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            names.add(prefix + i % 1150);
+        }
+
+        try {
+            // when
+            List<Member> sequential = repository.findByNames(names);
+            List<Member> parallel = repository.findByNamesInParallel(names);
+            // 호출 측 트랜잭션 안에서는 커넥션을 더 잡지 않고 그 트랜잭션에서 차례로 조회한다
+            Boolean managed = new TransactionTemplate(transactionManager).execute(status ->
+                    em.contains(repository.findByNamesInParallel(names).get(0)));
+
+            // then - 중복 이름은 한 번만, 없는 이름은 무시
+            assertThat(sequential).hasSize(1100);
+            assertThat(parallel).extracting("id").containsExactlyInAnyOrderElementsOf(
+                    sequential.stream().map(Member::getId).collect(Collectors.toList()));
+            assertThat(parallel).extracting("team.name").containsOnly(prefix);
+            assertThat(managed).isTrue();
+            assertThat(repository.findByNames(List.of())).isEmpty();
+        } finally {
+            repository.deleteAllByIdInBatch(members.stream().map(Member::getId).collect(Collectors.toList()));
+            teamRepository.deleteById(team.getId());
+        }
+    }
+
     @Test
     public void returnType() {
 
@@ -214,6 +307,132 @@ class MemberRepositoryTest {
         assertThat(page.hasNext()).isTrue();
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void pageCountCached() {
+        // given - 저장하면서 Member 건수 캐시가 비워진다
+        for (int i = 0; i < 7; i++) {
+            repository.save(new Member("member" + i, 10));
+        }
+
+        // when - 쓰기 트랜잭션 안에서 구한 건수는 캐시하지 않는다
+        double cachedBefore = cachedPageCounts();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            repository.findAll(PageRequest.of(1, 2));
+            repository.findAll(PageRequest.of(1, 2));
+        });
+        double cachedInWriteTransaction = cachedPageCounts() - cachedBefore;
+
+        // 가득 찬 두 번째 페이지라 전체 건수가 필요하다 - 리포지토리의 읽기 전용 트랜잭션에서 실행
+        Page<Member> first = repository.findAll(PageRequest.of(1, 2));
+        Page<Member> second = repository.findAll(PageRequest.of(1, 2));
+
+        // then
+        assertThat(cachedInWriteTransaction).isEqualTo(0);
+        assertThat(cachedPageCounts() - cachedBefore).isEqualTo(1);
+        assertThat(second.getTotalElements()).isEqualTo(first.getTotalElements());
+        assertThat(second.getTotalElements()).isEqualTo(repository.count());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void pageCountEvictedAfterCommit() throws Exception {
+        // given - 두 번째 페이지가 가득 차도록 저장하고 건수를 캐시해 둔다
+        for (int i = 0; i < 4; i++) {
+            repository.save(new Member("evictAfterCommit" + i, 10));
+        }
+        repository.findAll(PageRequest.of(1, 2));
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+
+        try {
+            // when - flush 와 커밋 사이에 다른 스레드가 커밋 전 건수를 다시 캐시한다
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                repository.save(new Member("evictAfterCommit", 10));
+                em.flush();
+                try {
+                    reader.submit(() -> repository.findAll(PageRequest.of(1, 2))).get(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            // then - 커밋 후에 무효화되므로 새 건수가 보인다
+            assertThat(repository.findAll(PageRequest.of(1, 2)).getTotalElements()).isEqualTo(repository.count());
+        } finally {
+            reader.shutdown();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void pageCountEvictedByBulkUpdate() {
+        // given
+        for (int i = 0; i < 4; i++) {
+            repository.save(new Member("evictByBulk" + i, 10));
+        }
+        repository.findAll(PageRequest.of(1, 2));
+        double cachedBefore = cachedPageCounts();
+
+        // when - @Modifying 메서드는 엔티티 리스너를 거치지 않는다
+        repository.bulkAgePlus(Integer.MAX_VALUE);
+        repository.findAll(PageRequest.of(1, 2));
+
+        // then - 무효화됐으므로 count 를 다시 실행한다
+        assertThat(cachedPageCounts() - cachedBefore).isEqualTo(0);
+    }
+
+    private double cachedPageCounts() {
+        return meterRegistry.counter("repository.page.count", "outcome", "cached").count();
+    }
+
+    @Test
+    public void saveAllBatched() {
+        // given
+        Team teamA = new Team("teamA");
+        teamRepository.save(teamA);
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("batch" + i, i % 50, teamA));
+        }
+
+        // when
+        BatchInsertResult result = repository.saveAllBatched(members, 100);
+
+        // then
+        assertThat(result.getRows()).isEqualTo(250);
+        assertThat(members).allMatch(member -> member.getId() != null);
+        assertThat(repository.findListByUsername("batch249")).hasSize(1);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @Rollback
+    public void saveAllBatchedBenchmark() {
+        String[] sizes = System.getProperty("bench.sizes", "100000,1000000").split(",");
+        for (String size : sizes) {
+            int count = Integer.parseInt(size.trim());
+
+            long start = System.nanoTime();
+            repository.saveAll(newMembers("saveAll", count));
+            em.flush();
+            long saveAllNanos = System.nanoTime() - start;
+            em.clear();
+
+            BatchInsertResult batched = repository.saveAllBatched(newMembers("batched", count), 500);
+
+            System.out.printf("members=%d saveAll=%.0f rows/s saveAllBatched=%.0f rows/s%n",
+                    count, count * 1e9 / saveAllNanos, batched.getRowsPerSecond());
+        }
+    }
+
+    private static List<Member> newMembers(String prefix, int count) {
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            members.add(new Member(prefix + i, i % 100));
+        }
+        return members;
+    }
+
     @Test
     public void bulkUpdate() {
         repository.save(new Member("member1", 10));
@@ -227,6 +446,186 @@ class MemberRepositoryTest {
         assertThat(resultCount).isEqualTo(3);
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void optimisticRetry() {
+        // given
+        Member member = repository.save(new Member("optimistic", 10));
+        TransactionTemplate other = new TransactionTemplate(transactionManager);
+        other.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when - 첫 시도 중에 다른 트랜잭션이 먼저 수정하고 커밋
+        Integer age = retryExecutor.execute(status -> {
+            Member findMember = repository.findById(member.getId()).get();
+            if (attempts.incrementAndGet() == 1) {
+                other.executeWithoutResult(s -> repository.findById(member.getId()).get().setAge(100));
+            }
+            findMember.setAge(findMember.getAge() + 1);
+            return findMember.getAge();
+        });
+
+        // then
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(age).isEqualTo(101);
+        assertThat(repository.findById(member.getId()).get().getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void lockingBenchmark() throws Exception {
+        int threads = Integer.getInteger("bench.threads", 8);
+        int increments = Integer.getInteger("bench.increments", 200);
+        OptimisticRetryExecutor optimistic = new OptimisticRetryExecutor(transactionManager, meterRegistry,
+                Integer.MAX_VALUE, Duration.ofMillis(1), Duration.ofMillis(50));
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+        // 같은 회원 한 명의 나이를 여러 스레드가 동시에 증가
+        String pessimisticName = "lockPessimistic" + System.nanoTime();
+        Member pessimisticTarget = repository.save(new Member(pessimisticName, 0));
+        long pessimisticNanos = contend(threads, increments, () -> template.executeWithoutResult(status -> {
+            Member member = repository.findLockByUsername(pessimisticName).get(0);
+            member.setAge(member.getAge() + 1);
+        }));
+
+        Member optimisticTarget = repository.save(new Member("lockOptimistic", 0));
+        double retriesBefore = meterRegistry.counter("repository.optimistic.retries").count();
+        long optimisticNanos = contend(threads, increments, () -> optimistic.execute(status -> {
+            Member member = repository.findById(optimisticTarget.getId()).get();
+            member.setAge(member.getAge() + 1);
+            return null;
+        }));
+        double retries = meterRegistry.counter("repository.optimistic.retries").count() - retriesBefore;
+
+        int total = threads * increments;
+        assertThat(repository.findById(pessimisticTarget.getId()).get().getAge()).isEqualTo(total);
+        assertThat(repository.findById(optimisticTarget.getId()).get().getAge()).isEqualTo(total);
+        System.out.printf("threads=%d updates=%d pessimistic=%.0f tx/s optimistic=%.0f tx/s (retries=%.0f)%n",
+                threads, total, total * 1e9 / pessimisticNanos, total * 1e9 / optimisticNanos, retries);
+    }
+
+    private static long contend(int threads, int increments, Runnable update) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < increments; j++) {
+                        update.run();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+            return System.nanoTime() - start;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void readOnlyFinderBenchmark() {
+        // given - 커밋된 데이터가 필요하므로 음수 나이로 넣고 끝나면 지운다
+        int count = Integer.getInteger("bench.members", 100_000);
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            teams.add(new Team("readOnlyTeam" + i));
+        }
+        teamRepository.saveAll(teams);
+        List<Member> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            members.add(new Member("readOnly" + i, -1 - i % 100, teams.get(i % 100)));
+        }
+        repository.saveAllBatched(members, 1000);
+        members = null;
+
+        try {
+            // when - OSIV 처럼 열린 EntityManager 에서 findMemberFetchJoin 을 실행하고, 요청이 끝나기 전 상태를 비교
+            // 애너테이션 이전: 읽기 전용이 아닌 트랜잭션에 참여해서 조회 / 이후: 리포지토리의 읽기 전용 트랜잭션
+            long[] readWrite = findMemberFetchJoinInOpenEntityManager(false);
+            long[] readOnly = findMemberFetchJoinInOpenEntityManager(true);
+
+            System.out.printf("findMemberFetchJoin in open EntityManager: read-write=%d KB %.2fms"
+                            + " read-only=%d KB %.2fms saved=%d KB%n",
+                    readWrite[0] / 1024, readWrite[1] / 1e6, readOnly[0] / 1024, readOnly[1] / 1e6,
+                    (readWrite[0] - readOnly[0]) / 1024);
+        } finally {
+            repository.deleteByAgeLessThanChunked(0, 10_000);
+            teamRepository.deleteAllInBatch(teams);
+        }
+    }
+
+    /**
+     * OpenEntityManagerInViewInterceptor 처럼 EntityManager 를 스레드에 묶어 두고 조회한다
+     * - 트랜잭션이 끝나도 엔티티와 스냅샷이 영속성 컨텍스트에 남으므로 EntityManager 를 닫기 전에 힙을 잰다
+     * @return {남은 힙, 조회부터 커밋까지 걸린 시간(ns)}
+     */
+    private long[] findMemberFetchJoinInOpenEntityManager(boolean readOnlyFinder) {
+        EntityManager openEm = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(openEm));
+        try {
+            long before = usedHeap();
+            long start = System.nanoTime();
+            List<Member> result = readOnlyFinder
+                    ? repository.findMemberFetchJoin()
+                    : new TransactionTemplate(transactionManager).execute(status -> repository.findMemberFetchJoin());
+            long elapsed = System.nanoTime() - start;
+            long after = usedHeap();
+            assertThat(result).isNotEmpty();
+            return new long[]{after - before, elapsed};
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            EntityManagerFactoryUtils.closeEntityManager(openEm);
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void bulkChunked() {
+        // given - 청크마다 별도 트랜잭션이므로 커밋된 데이터로 확인
+        List<Member> members = repository.saveAll(List.of(
+                new Member("chunk1", 999), new Member("chunk2", 1000),
+                new Member("chunk3", 1001), new Member("chunk4", -1000)));
+
+        // when
+        BulkOperationResult updated = repository.bulkAgePlusChunked(1000, 1);
+        BulkOperationResult deleted = repository.deleteByAgeLessThanChunked(-999, 10);
+
+        // then - 청크는 대상 행 기준이므로 빈 청크가 없다
+        assertThat(updated.getTotalRows()).isEqualTo(2);
+        assertThat(updated.getChunks()).extracting("rows").containsOnly(1);
+        assertThat(deleted.getTotalRows()).isEqualTo(1);
+        assertThat(deleted.getChunks()).hasSize(1);
+        assertThat(repository.findById(members.get(0).getId()).get().getAge()).isEqualTo(999);
+        assertThat(repository.findById(members.get(1).getId()).get().getAge()).isEqualTo(1001);
+        assertThat(repository.findById(members.get(2).getId()).get().getAge()).isEqualTo(1002);
+        assertThat(repository.findById(members.get(3).getId())).isEmpty();
+    }
+
+    @Test
+    @Rollback
+    public void bulkChunkedRejectsPendingChanges() {
+        // given - persist 만 하고 flush 하지 않은 회원은 준영속이 되면 insert 되지 않는다
+        repository.save(new Member("pendingChunk", -2000));
+
+        // when, then
+        assertThatThrownBy(() -> repository.deleteByAgeLessThanChunked(-1999, 10))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
     @Test
     public void findMemberEntityGraph() {
         Team teamA = new Team("teamA");
@@ -311,6 +710,26 @@ class MemberRepositoryTest {
         List<Member> members = repository.findMemberCustom();
     }
 
+    @Test
+    public void scrollMembers() {
+        // given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 5; i++) {
+            em.persist(new Member("scroll" + i, 10, teamA));
+        }
+        em.flush();
+        em.clear();
+
+        // when
+        List<String> usernames = new ArrayList<>();
+        long count = repository.scrollMembers(2, member -> usernames.add(member.getUsername()));
+
+        // then
+        assertThat(count).isEqualTo(usernames.size());
+        assertThat(usernames).contains("scroll0", "scroll1", "scroll2", "scroll3", "scroll4");
+    }
+
     @Test
     public void specBasic() {
         // given
@@ -326,11 +745,91 @@ class MemberRepositoryTest {
         em.clear();
 
         // when
-        Specification<Member> spec = MemberSpec.username("m1").and(MemberSpec.teamName("teamA"));
+        MemberSpec spec = MemberSpec.username("m1").and(MemberSpec.teamName("teamA"));
         List<Member> list = repository.findAll(spec);
 
-        // then
+        // then - Criteria 로 만든 결과와 캐시된 JPQL 결과가 같다
         assertThat(list).extracting("username").contains("m1");
+        assertThat(repository.search(spec)).extracting("id")
+                .containsExactlyInAnyOrderElementsOf(list.stream().map(Member::getId).collect(Collectors.toList()));
+        assertThat(spec).isEqualTo(MemberSpec.teamName("teamA").and(MemberSpec.username("m1")));
+    }
+
+    @Test
+    @Rollback
+    public void search() {
+        // given
+        Team teamA = new Team("searchTeamA");
+        Team teamB = new Team("searchTeamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("searchMember", 10, teamA));
+        em.persist(new Member("searchMember", 20, teamB));
+        em.flush();
+        em.clear();
+
+        // when
+        List<Member> byTeam = repository.search(new MemberSearchCondition("searchMember", "searchTeamB", null, null));
+        List<Member> byAge = repository.search(new MemberSearchCondition("searchMember", "", 15, 30));
+        List<Member> byUsername = repository.search(new MemberSearchCondition("searchMember", null, null, null));
+
+        // then
+        assertThat(byTeam).extracting("age").containsExactly(20);
+        assertThat(byTeam).extracting("team.name").containsExactly("searchTeamB");
+        assertThat(byAge).extracting("age").containsExactly(20);
+        assertThat(byUsername).extracting("age").containsExactlyInAnyOrder(10, 20);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void inListBenchmark() {
+        int rows = 50_000;
+        int rounds = Integer.getInteger("bench.rounds", 20);
+        List<Member> members = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            members.add(new Member("inListBench" + i, -5000));
+        }
+        repository.saveAllBatched(members, 1000);
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        Random random = new Random(42);
+        try {
+            for (int size : new int[]{10, 100, 1_000, 10_000, 50_000}) {
+                // 매번 길이가 다른 목록 - padding 이 없으면 길이마다 새 플랜이 생긴다
+                List<List<String>> lists = new ArrayList<>(rounds);
+                for (int round = 0; round < rounds; round++) {
+                    int length = Math.max(1, size - random.nextInt(size / 4 + 1));
+                    List<String> names = new ArrayList<>(length);
+                    for (int i = 0; i < length; i++) {
+                        names.add("inListBench" + random.nextInt(rows));
+                    }
+                    lists.add(names);
+                }
+
+                long hits = statistics.getQueryPlanCacheHitCount();
+                long misses = statistics.getQueryPlanCacheMissCount();
+                long start = System.nanoTime();
+                for (List<String> names : lists) {
+                    repository.findByNames(names);
+                }
+                long sequentialNanos = System.nanoTime() - start;
+                long planHits = statistics.getQueryPlanCacheHitCount() - hits;
+                long planMisses = statistics.getQueryPlanCacheMissCount() - misses;
+
+                start = System.nanoTime();
+                for (List<String> names : lists) {
+                    repository.findByNamesInParallel(names);
+                }
+                long parallelNanos = System.nanoTime() - start;
+
+                System.out.printf("names=%d sequential=%.2fms/op parallel=%.2fms/op plan hit rate=%.1f%% (hits %d, misses %d)%n",
+                        size, sequentialNanos / 1e6 / rounds, parallelNanos / 1e6 / rounds,
+                        100.0 * planHits / Math.max(1, planHits + planMisses), planHits, planMisses);
+            }
+        } finally {
+            repository.deleteByAgeLessThanChunked(-4999, 10_000);
+        }
     }
 
     @Test
@@ -385,6 +884,30 @@ class MemberRepositoryTest {
         System.out.println(m1.get(0).getUsername());
     }
 
+    @Test
+    @Rollback
+    public void usernameOnlyProjection() {
+        // given
+        em.persist(new Member("usernameOnly", 33));
+        em.flush();
+        em.clear();
+
+        // when - @Value 연결식은 select 절에서 계산되어 엔티티를 읽지 않는다
+        List<UsernameOnly> computed;
+        try (QueryCounter counter = QueryCounter.open("usernameOnly")) {
+            computed = repository.findProjectionsByUsername("usernameOnly", UsernameOnly.class);
+            assertThat(counter.getCount()).isEqualTo(1);
+        }
+        List<UsernameOnlyDto> dto = repository.findProjectionsByUsername("usernameOnly", UsernameOnlyDto.class);
+
+        // then
+        assertThat(computed).extracting("username").containsExactly("usernameOnly 33");
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        assertThat(dto).extracting("username").containsExactly("usernameOnly");
+        // 튜플 결과는 JDK 프록시 대신 생성된 클래스로 만들어진다
+        assertThat(Proxy.isProxyClass(computed.get(0).getClass())).isFalse();
+    }
+
     @Test
     public void nativeQuery() {
 
@@ -410,4 +933,290 @@ class MemberRepositoryTest {
 
         // then
     }
-}
\ No newline at end of file
+
+    @Test
+    public void findMemberDtoNative() {
+        // given
+        Team team = new Team("nativeTeam");
+        em.persist(team);
+        em.persist(new Member("native1", 10, team));
+        em.persist(new Member("native2", 20, team));
+        em.persist(new Member("native3", 30));
+
+        // when - 저장은 flush 되지 않은 상태에서 조회
+        Page<MemberDto> page = repository.findMemberDtoNative(PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "id")));
+        Page<MemberProjection> projections = repository.findByNativeProjection(PageRequest.of(0, 10_000));
+
+        // then - team 조인 조건이 있어야 회원당 한 행
+        assertThat(page.getContent()).extracting("username").containsExactly("native3", "native2", "native1");
+        assertThat(page.getContent()).extracting("teamName").containsExactly(null, "nativeTeam", "nativeTeam");
+        assertThat(page.getTotalElements()).isEqualTo(repository.count());
+        assertThat(projections.getContent()).extracting("id").doesNotHaveDuplicates();
+        assertThat(projections.getTotalElements()).isEqualTo(page.getTotalElements());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void asyncPages() throws Exception {
+        // given
+        teamRepository.save(new Team("asyncTeam"));
+
+        Set<String> memberQueryThreads = ConcurrentHashMap.newKeySet();
+        Set<String> teamQueryThreads = ConcurrentHashMap.newKeySet();
+
+        // when - 두 조회가 queryExecutor 에서 각자 트랜잭션으로 실행
+        CompletableFuture<Page<MemberDto>> members;
+        CompletableFuture<Page<TeamDto>> teams;
+        try (QueryCounter counter = QueryCounter.open("asyncPages")) {
+            members = repository.findMemberDtoPageAsync(
+                    threadRecordingPage(0, 5, Sort.by("username"), memberQueryThreads));
+            teams = teamRepository.findTeamDtoPageAsync(
+                    threadRecordingPage(0, 5, Sort.by("name"), teamQueryThreads));
+            CompletableFuture.allOf(members, teams).get(5, TimeUnit.SECONDS);
+
+            // then - query- 스레드에서 실행한 SQL 도 호출한 스레드의 범위에 세어진다 (회원 조회 + 팀 조회/count)
+            assertThat(counter.getCount()).isGreaterThanOrEqualTo(3);
+        }
+
+        // 회원 전체 건수는 PageCount 캐시를 쓰므로 내용만 확인
+        assertThat(members.get().getContent()).hasSizeBetween(1, 5);
+        assertThat(teams.get().getTotalElements()).isEqualTo(teamRepository.count());
+        assertThat(teams.get().getContent()).isNotEmpty();
+        assertThat(memberQueryThreads).isNotEmpty().allMatch(name -> name.startsWith("query-"));
+        assertThat(teamQueryThreads).isNotEmpty().allMatch(name -> name.startsWith("query-"));
+    }
+
+    /**
+     * 쿼리를 만들면서 getOffset 을 호출한 스레드 이름을 모은다 - 조회가 실제로 어느 스레드에서 실행됐는지 확인용
+     */
+    private static PageRequest threadRecordingPage(int page, int size, Sort sort, Set<String> threads) {
+        return new PageRequest(page, size, sort) {
+            @Override
+            public long getOffset() {
+                threads.add(Thread.currentThread().getName());
+                return super.getOffset();
+            }
+        };
+    }
+
+    @Test
+    public void keysetPaging() {
+        // given - 다른 테스트 데이터보다 뒤에 정렬되도록 z 접두어 사용
+        for (int i = 0; i < 5; i++) {
+            repository.save(new Member("zkeyset" + i, 10));
+        }
+        em.flush();
+        em.clear();
+
+        // when
+        KeysetWindow<Member> first = repository.findMemberWindow(null, 2, Sort.Direction.DESC);
+        KeysetWindow<Member> second = repository.findMemberWindow(
+                KeysetCursor.decode(first.getNextCursor()), 2, Sort.Direction.DESC);
+        KeysetWindow<Member> back = repository.findMemberWindow(
+                KeysetCursor.decode(second.getPrevCursor()), 2, Sort.Direction.DESC);
+
+        // then
+        assertThat(first.getContent()).extracting("username").containsExactly("zkeyset4", "zkeyset3");
+        assertThat(first.hasPrevious()).isFalse();
+        assertThat(second.getContent()).extracting("username").containsExactly("zkeyset2", "zkeyset1");
+        assertThat(second.hasNext()).isTrue();
+        assertThat(back.getContent()).extracting("username").containsExactly("zkeyset4", "zkeyset3");
+        assertThat(back.hasPrevious()).isFalse();
+    }
+
+    @Test
+    @Rollback
+    public void findMemberDtoPage() {
+        // given - 다른 테스트 데이터보다 앞에 정렬되도록 zz 접두어 사용
+        Team team = new Team("dtoTeam");
+        em.persist(team);
+        em.persist(new Member("zzdto1", 10, team));
+        em.persist(new Member("zzdto2", 20));
+        em.flush();
+        em.clear();
+
+        // when
+        Page<MemberDto> page = repository.findMemberDtoPage(
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "username")));
+
+        // then
+        assertThat(page.getContent()).extracting("username").containsExactly("zzdto2", "zzdto1");
+        assertThat(page.getContent()).extracting("teamName").containsExactly(null, "dtoTeam");
+        assertThat(page.getTotalElements()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @Rollback
+    public void findMemberDtoPageBenchmark() {
+        int iterations = Integer.getInteger("bench.iterations", 2_000);
+        for (int i = 0; i < 100; i++) {
+            Team team = new Team("benchTeam" + i);
+            em.persist(team);
+            for (int j = 0; j < 10; j++) {
+                em.persist(new Member("bench" + i + "_" + j, j, team));
+            }
+        }
+        em.flush();
+        em.clear();
+
+        // 엔티티 조회 후 변환과 DTO 직접 조회를 요청 하나 단위로 비교 (스레드 할당 바이트)
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        PageRequest pageable = PageRequest.of(3, 20, Sort.by(Sort.Direction.DESC, "username"));
+        long entityBytes = 0;
+        long dtoBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            repository.findAll(pageable).map(m ->
+                    new MemberDto(m.getId(), m.getUsername(), m.getTeam() == null ? null : m.getTeam().getName()));
+            em.clear();
+            long middle = threads.getCurrentThreadAllocatedBytes();
+            repository.findMemberDtoPage(pageable);
+            em.clear();
+            long after = threads.getCurrentThreadAllocatedBytes();
+
+            // 앞쪽 반은 워밍업
+            if (i >= iterations / 2) {
+                entityBytes += middle - before;
+                dtoBytes += after - middle;
+            }
+        }
+
+        int measured = iterations - iterations / 2;
+        System.out.printf("allocated per request: entity=%d bytes dto=%d bytes%n",
+                entityBytes / measured, dtoBytes / measured);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void nativeRowMapperBenchmark() {
+        int rows = Integer.getInteger("bench.rows", 1_000_000);
+        int iterations = Integer.getInteger("bench.iterations", 200);
+        int size = 1000;
+        // 시퀀스와 겹치지 않는 id 대역에 SQL 로 바로 생성
+        long base = 100_000_000L;
+        jdbcTemplate.update("insert into team (id, name, version)"
+                + " select ? + x, 'nativeBenchTeam' || x, 0 from system_range(1, 100)", base);
+        jdbcTemplate.update("insert into member (member_id, username, age, version, team_id)"
+                + " select ? + x, 'nativeBench' || x, mod(x, 100), 0, ? + 1 + mod(x, 100) from system_range(1, ?)",
+                base, base, rows);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Random random = new Random(42);
+        int pages = rows / size;
+        try {
+            for (int round = 0; round < 2; round++) {
+                long projectionNanos = 0, projectionBytes = 0, mapperNanos = 0, mapperBytes = 0;
+                for (int i = 0; i < iterations; i++) {
+                    PageRequest pageable = PageRequest.of(random.nextInt(pages), size);
+
+                    long bytes = threads.getCurrentThreadAllocatedBytes();
+                    long start = System.nanoTime();
+                    repository.findByNativeProjection(pageable).getContent().forEach(MemberProjection::getTeamName);
+                    projectionNanos += System.nanoTime() - start;
+                    projectionBytes += threads.getCurrentThreadAllocatedBytes() - bytes;
+
+                    bytes = threads.getCurrentThreadAllocatedBytes();
+                    start = System.nanoTime();
+                    repository.findMemberDtoNative(pageable).getContent().forEach(MemberDto::getTeamName);
+                    mapperNanos += System.nanoTime() - start;
+                    mapperBytes += threads.getCurrentThreadAllocatedBytes() - bytes;
+                }
+
+                // 첫 라운드는 워밍업
+                if (round == 1) {
+                    System.out.printf("rows=%d page=%d projection=%.2fms/%dKB row mapper=%.2fms/%dKB (per page)%n",
+                            rows, size, projectionNanos / 1e6 / iterations, projectionBytes / 1024 / iterations,
+                            mapperNanos / 1e6 / iterations, mapperBytes / 1024 / iterations);
+                }
+            }
+        } finally {
+            jdbcTemplate.update("delete from member where member_id > ?", base);
+            jdbcTemplate.update("delete from team where id > ?", base);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void fanOutBenchmark() throws Exception {
+        int iterations = Integer.getInteger("bench.iterations", 200);
+        DataGeneratorProperties spec = new DataGeneratorProperties();
+        spec.setMembers(Integer.getInteger("bench.members", 200_000));
+        spec.setTeams(2_000);
+        spec.setUsernamePrefix("fanOut");
+        DataGenerationResult data = dataGenerator.generate(spec);
+
+        PageRequest memberPage = PageRequest.of(100, 20, Sort.by("username"));
+        PageRequest teamPage = PageRequest.of(10, 20, Sort.by("name"));
+        try {
+            for (int round = 0; round < 2; round++) {
+                long[] sequential = new long[iterations];
+                long[] concurrent = new long[iterations];
+                for (int i = 0; i < iterations; i++) {
+                    long start = System.nanoTime();
+                    repository.findMemberDtoPage(memberPage);
+                    teamRepository.findTeamDtoPage(teamPage);
+                    sequential[i] = System.nanoTime() - start;
+
+                    start = System.nanoTime();
+                    CompletableFuture<Page<MemberDto>> members = repository.findMemberDtoPageAsync(memberPage);
+                    CompletableFuture<Page<TeamDto>> teams = teamRepository.findTeamDtoPageAsync(teamPage);
+                    CompletableFuture.allOf(members, teams).get(30, TimeUnit.SECONDS);
+                    concurrent[i] = System.nanoTime() - start;
+                }
+
+                // 첫 라운드는 워밍업
+                if (round == 1) {
+                    Arrays.sort(sequential);
+                    Arrays.sort(concurrent);
+                    System.out.printf("members=%d sequential p50=%.2fms p99=%.2fms concurrent p50=%.2fms p99=%.2fms%n",
+                            data.getMembers(), sequential[iterations / 2] / 1e6, sequential[iterations * 99 / 100] / 1e6,
+                            concurrent[iterations / 2] / 1e6, concurrent[iterations * 99 / 100] / 1e6);
+                }
+            }
+        } finally {
+            jdbcTemplate.update("delete from member where member_id between ? and ?",
+                    data.getFirstMemberId(), data.getFirstMemberId() + data.getMembers() - 1);
+            jdbcTemplate.update("delete from team where id between ? and ?",
+                    data.getFirstTeamId(), data.getFirstTeamId() + data.getTeams() - 1);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    @Rollback
+    public void keysetPagingBenchmark() {
+        int total = Integer.getInteger("bench.members", 20_000);
+        int size = 20;
+        for (int i = 0; i < total; i++) {
+            em.persist(new Member(String.format("bench%07d", i), i % 100));
+        }
+        em.flush();
+        em.clear();
+
+        // 오프셋 페이징과 키셋 페이징을 같은 깊이에서 비교
+        KeysetCursor cursor = null;
+        int pages = total / size;
+        for (int page = 0; page < pages; page++) {
+            long start = System.nanoTime();
+            KeysetWindow<Member> window = repository.findMemberWindow(cursor, size, Sort.Direction.DESC);
+            long keysetNanos = System.nanoTime() - start;
+
+            if (page % Math.max(1, pages / 10) == 0 || page == pages - 1) {
+                start = System.nanoTime();
+                repository.findAll(PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "username")));
+                long offsetNanos = System.nanoTime() - start;
+                System.out.printf("page=%d offset=%.2fms keyset=%.2fms%n",
+                        page, offsetNanos / 1e6, keysetNanos / 1e6);
+            }
+
+            if (!window.hasNext()) {
+                break;
+            }
+            cursor = KeysetCursor.decode(window.getNextCursor());
+            em.clear();
+        }
+    }
+}
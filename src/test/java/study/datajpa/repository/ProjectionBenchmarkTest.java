@@ -0,0 +1,51 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import study.datajpa.repository.support.GeneratedProjectionFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 튜플 프로젝션 생성 + 접근 비용 비교 (프록시 vs 생성 클래스) - DB 조회를 포함한 비교는 src/jmh 의 ProjectionBenchmark
+ */
+@Tag("benchmark")
+class ProjectionBenchmarkTest {
+
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 1_000_000);
+
+    private final ProjectionFactory factory = new SpelAwareProxyProjectionFactory();
+    private final ProjectionFactory generatedFactory = new GeneratedProjectionFactory();
+
+    @Test
+    void generatedProjection() {
+        Map<String, Object> row = Map.of("id", 1L, "username", "member1", "teamName", "teamA");
+
+        run("MemberProjection (proxy)", () -> factory.createProjection(MemberProjection.class, row).getTeamName());
+        run("MemberProjection (generated)", () ->
+                generatedFactory.createProjection(MemberProjection.class, row).getTeamName());
+    }
+
+    private static void run(String name, Supplier<String> invocation) {
+        // 워밍업
+        for (int i = 0; i < ITERATIONS; i++) {
+            invocation.get();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        int length = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            length += invocation.get().length();
+        }
+        long elapsed = System.nanoTime() - start;
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        System.out.printf("%-30s %8.1f ns/op %6d bytes/op (%d)%n",
+                name, (double) elapsed / ITERATIONS, allocated / ITERATIONS, length);
+    }
+}
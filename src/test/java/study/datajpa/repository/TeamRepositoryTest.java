@@ -1,12 +1,19 @@
 package study.datajpa.repository;
 
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.querycount.QueryCounter;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
@@ -54,4 +61,49 @@ public class TeamRepositoryTest {
 
         assertThat(list.size()).isEqualTo(5);
     }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void secondLevelCache() {
+        // given - 호출마다 별도 트랜잭션(세션)으로 실행
+        Team team = teamRepository.save(new Team("cachedTeam"));
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        teamRepository.findById(team.getId());
+
+        // when
+        long hits = statistics.getSecondLevelCacheHitCount();
+        Team findTeam = teamRepository.findById(team.getId()).get();
+
+        // then
+        assertThat(findTeam.getName()).isEqualTo("cachedTeam");
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(hits);
+    }
+
+    @Test
+    @Rollback
+    public void findTeamsWithMembers() {
+        // given
+        for (int i = 0; i < 12; i++) {
+            Team team = new Team("pagedTeam" + i);
+            em.persist(team);
+            em.persist(new Member("pagedA" + i, 10, team));
+            em.persist(new Member("pagedB" + i, 20, team));
+        }
+        em.flush();
+        em.clear();
+
+        for (int size : new int[]{1, 5, 10}) {
+            // when
+            try (QueryCounter counter = QueryCounter.open("findTeamsWithMembers")) {
+                Slice<Team> slice = teamRepository.findTeamsWithMembers(PageRequest.of(0, size));
+                slice.forEach(t -> t.getMembers().forEach(Member::getUsername));
+
+                // then - 팀 페이지 1번 + members 1번
+                assertThat(slice.getContent()).hasSize(size).doesNotHaveDuplicates();
+                assertThat(slice.getContent()).allMatch(t -> Hibernate.isInitialized(t.getMembers()));
+                assertThat(counter.getCount()).isEqualTo(2);
+            }
+            em.clear();
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package study.datajpa.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.username-index.enabled=true")
+class UsernamePrefixIndexTest {
+
+    @Autowired
+    UsernamePrefixIndex index;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void followsCommittedChanges() {
+        // given
+        String prefix = "typeahead" + System.nanoTime();
+        Member member = memberRepository.save(new Member(prefix + "A", 10));
+        memberRepository.save(new Member(prefix + "B", 10));
+
+        // then
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search(prefix, 10)).extracting("username").containsExactly(prefix + "A", prefix + "B");
+        assertThat(index.search(prefix + "B", 10)).extracting("username").containsExactly(prefix + "B");
+
+        // 이름 변경
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                memberRepository.findById(member.getId()).get().changeUsername(prefix + "C"));
+        assertThat(index.search(prefix, 10)).extracting("username").containsExactly(prefix + "B", prefix + "C");
+
+        // 롤백된 변경은 반영하지 않는다
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            memberRepository.save(new Member(prefix + "D", 10));
+            status.setRollbackOnly();
+        });
+        assertThat(index.search(prefix + "D", 10)).isEmpty();
+
+        // 삭제
+        memberRepository.deleteById(member.getId());
+        assertThat(index.search(prefix, 10)).extracting("username").containsExactly(prefix + "B");
+    }
+
+    @Test
+    void reloadDropsRowsDeletedByBulkOperations() {
+        // given - bulk 삭제는 리스너를 거치지 않으므로 인덱스에 남는다
+        String prefix = "reload" + System.nanoTime();
+        Member member = memberRepository.save(new Member(prefix + "A", 10));
+        memberRepository.save(new Member(prefix + "B", 10));
+        memberRepository.deleteAllByIdInBatch(List.of(member.getId()));
+        assertThat(index.search(prefix, 10)).hasSize(2);
+
+        // when
+        index.reload();
+
+        // then
+        assertThat(index.search(prefix, 10)).extracting("username").containsExactly(prefix + "B");
+    }
+}